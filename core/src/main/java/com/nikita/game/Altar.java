@@ -1,14 +1,12 @@
 package com.nikita.game;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.physics.box2d.*;
 
 public class Altar extends InteractiveObject {
+    static final String TEXTURE = "altar.png";
     private boolean activated = false;
-    private Texture sprite = new Texture("altar.png");
+    private TextureRegion sprite = GameAssets.acquireRegion(TEXTURE);
     private SecretDoor secretDoor;
     private SoundManager soundManager;
     private DialogueSystem dialogueSystem;
@@ -20,8 +18,11 @@ public class Altar extends InteractiveObject {
         body = world.createBody(bodyDef);
         PolygonShape shape = new PolygonShape();
         shape.setAsBox(0.8f, 0.4f);
-        body.createFixture(shape, 0);
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        body.createFixture(CollisionCategories.apply(fixtureDef, CollisionCategories.WALL));
         shape.dispose();
+        createSensor(0.8f, CollisionCategories.TRIGGER); // Зона активации: прежние 1.2 между центрами
         this.secretDoor = secretDoor;
         this.soundManager = soundManager;
         this.dialogueSystem = dialogueSystem;
@@ -29,7 +30,7 @@ public class Altar extends InteractiveObject {
 
     @Override
     public void update(float delta, Player player) {
-        if (!activated && player.getPosition().dst(body.getPosition()) < 1.2f && Gdx.input.isKeyJustPressed(Input.Keys.E)) {
+        if (!activated && playerInRange && player.isInteractPressed()) {
             activated = true;
             if (secretDoor != null) secretDoor.open();
             if (soundManager != null) soundManager.playSound("altar_activate.wav");
@@ -38,10 +39,15 @@ public class Altar extends InteractiveObject {
     }
 
     @Override
-    public void render(SpriteBatch batch) {
-        batch.draw(sprite, body.getPosition().x-0.8f, body.getPosition().y-0.4f, 1.6f, 0.8f);
+    public void addSprites(RenderSnapshot out) {
+        out.addSprite(sprite, body.getPosition().x-0.8f, body.getPosition().y-0.4f, 1.6f, 0.8f);
     }
 
     @Override
     public boolean isActive() { return !activated; }
+
+    @Override
+    public void dispose() {
+        GameAssets.releaseRegion(TEXTURE);
+    }
 }
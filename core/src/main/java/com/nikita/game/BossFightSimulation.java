@@ -0,0 +1,151 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+
+/**
+ * Physics and rules of the Soul Keeper fight, without rendering or dialogue.
+ * {@link SoulKeeperBossScreen} ticks it on the render thread or on a {@link SimulationThread}
+ * and reacts to the phase and defeat flags it publishes in the {@link RenderSnapshot}.
+ */
+public class BossFightSimulation implements Simulation {
+    /** Seconds between boss hits while the player stays inside its attack sensor. */
+    private static final float BOSS_ATTACK_INTERVAL = 3f;
+    /** Target name of the fight in {@link InputLog} files. */
+    public static final String LOG_TARGET = "boss";
+
+    private final World world;
+    private final GameContactListener contacts = new GameContactListener();
+    private final Player player;
+    private final SoulKeeperBoss boss;
+    private final long seed; // The boss and the screen's effects derive their GameRandom streams from it
+    private boolean playerInBossReach = false;
+    private float bossAttackTimer = 0;
+    private boolean bossDefeated = false;
+    private ItemManager itemManager;
+
+    /**
+     * @param inputLog records or replays the player's input and supplies the boss seed; null to play freely
+     */
+    public BossFightSimulation(SoundManager soundManager, InputLog inputLog) {
+        // Initialize physics world
+        world = new World(new Vector2(0, -9.8f), true);
+        world.setContactListener(contacts);
+
+        // Create player
+        player = new Player(world, 5, 5);
+        player.setInputLog(inputLog);
+
+        // Create boss; the screen shows the defeat dialogue once the snapshot reports it
+        seed = inputLog != null ? inputLog.getSeed() : GameRandom.newSeed();
+        boss = new SoulKeeperBoss(world, 25, 5, soundManager, seed);
+        boss.setOnDefeatHandler(() -> bossDefeated = true);
+
+        // The fight always starts from the same state, so the header only needs the seed
+        if (inputLog != null) inputLog.start("");
+    }
+
+    /**
+     * Seed of the fight; the screen derives its {@link GameRandom#VFX} stream from it.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    SoulKeeperBoss getBoss() {
+        return boss;
+    }
+
+    /**
+     * Places the crystal the defeated boss leaves behind. It loads a texture, so call it on the
+     * render thread while no {@link SimulationThread} runs the fight.
+     */
+    void grantCrystal() {
+        if (itemManager == null) itemManager = new ItemManager(world);
+        itemManager.addCrystal(player.getPosition().x, player.getPosition().y + 2);
+    }
+
+    /**
+     * One fixed simulation step of the fight.
+     */
+    @Override
+    public void tick(float delta, InputActions input) {
+        player.savePreviousPosition();
+        boss.savePreviousPositions();
+
+        // Update physics world, then handle the sensor contacts it reported
+        world.step(delta, 6, 2);
+        handleContacts();
+
+        // Update player
+        player.update(delta, input);
+
+        // Update boss
+        boss.update(delta, player.getPosition());
+
+        // The boss hits on a fixed interval while the player stays in reach, the first time on entering
+        if (playerInBossReach) {
+            bossAttackTimer -= delta;
+            if (bossAttackTimer <= 0) {
+                player.takeDamage(1);
+                bossAttackTimer = BOSS_ATTACK_INTERVAL;
+            }
+        }
+    }
+
+    /**
+     * Drains the contact events of the last world step.
+     */
+    private void handleContacts() {
+        for (int i = 0; i < contacts.size(); i++) {
+            GameContactListener.ContactEvent event = contacts.get(i);
+            if (event.is(CollisionCategories.PLAYER_ATTACK, CollisionCategories.ENEMY)) {
+                // One hit per attack, on the boss or one of its phantoms
+                Object target = event.ownerOf(CollisionCategories.ENEMY);
+                if (!event.begin || !player.canAttackHit()) continue;
+                if (target == boss) {
+                    boss.takeDamage(1);
+                    player.setAttackHit();
+                } else {
+                    EnemyStore phantoms = boss.getPhantoms();
+                    int slot = phantoms.slotOf(target);
+                    if (slot >= 0 && !phantoms.isDead(slot)) {
+                        phantoms.takeDamage(slot, 1);
+                        player.setAttackHit();
+                    }
+                }
+            } else if (event.is(CollisionCategories.ENEMY_ATTACK, CollisionCategories.PLAYER)
+                && event.ownerOf(CollisionCategories.ENEMY_ATTACK) == boss) {
+                playerInBossReach = event.begin;
+                if (!event.begin) bossAttackTimer = 0;
+            }
+        }
+        contacts.clear();
+    }
+
+    /**
+     * Player, boss and phantoms, plus the health and phase values the screen shows and reacts to.
+     */
+    @Override
+    public void writeSnapshot(RenderSnapshot out) {
+        player.addSprites(out);
+        boss.addSprites(out);
+
+        Vector2 position = player.getPosition();
+        out.playerX = position.x;
+        out.playerY = position.y;
+        out.playerHealth = player.getHealth();
+        out.playerDead = player.isDead();
+        out.bossHealth = (float) boss.getHealth() / boss.getMaxHealth();
+        out.bossPhase = boss.getCurrentPhase();
+        out.bossDefeated = bossDefeated;
+    }
+
+    @Override
+    public void dispose() {
+        if (itemManager != null) itemManager.dispose();
+        boss.dispose();
+        player.dispose();
+        world.dispose();
+    }
+}
@@ -0,0 +1,237 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Streams static collision bodies in {@link #CHUNK_SIZE}x{@link #CHUNK_SIZE} tile chunks around a focus area.
+ * The merged rectangles of the whole map are clipped to chunk bounds once; bodies exist only
+ * for chunks within {@link #LOAD_MARGIN} chunks of the focus and are destroyed again once a chunk
+ * is more than {@link #UNLOAD_MARGIN} chunks away, so walking along a chunk edge does not thrash.
+ * The number of live bodies depends on the view size, not on the map size.
+ */
+public final class ChunkStreamer {
+    public static final int CHUNK_SIZE = 16;
+    /** Chunks around the focus area that get bodies. */
+    static final int LOAD_MARGIN = 1;
+    /** Chunks around the focus area that keep their bodies; larger than LOAD_MARGIN for hysteresis. */
+    static final int UNLOAD_MARGIN = 2;
+    /** Collision shapes are slightly smaller than their tiles. */
+    static final float WALL_INSET = 0.1f;
+    /** A clipped rectangle plus a mask of the {@code CLIPPED_*} edges that were cut at a chunk border. */
+    static final int CHUNK_STRIDE = CollisionRects.STRIDE + 1;
+    static final int CLIPPED_LEFT = 1, CLIPPED_RIGHT = 2, CLIPPED_BOTTOM = 4, CLIPPED_TOP = 8;
+
+    private final World world;
+    private final int chunksX, chunksY;
+    /** Clipped rectangles per chunk, {@link #CHUNK_STRIDE} ints each, indexed {@code cx + cy * chunksX}. */
+    private final int[][] chunkRects;
+    /** Live bodies per chunk, null while the chunk is not loaded. */
+    private final Array<Body>[] chunkBodies;
+    /** Indices of the loaded chunks, so unloading never scans the whole map. */
+    private final IntArray loaded = new IntArray();
+    private int bodyCount;
+
+    // Chunks covered by the focus itself and the load range, inclusive
+    private int focusMinX, focusMinY, focusMaxX = -1, focusMaxY = -1;
+    private int loadMinX, loadMinY, loadMaxX = -1, loadMaxY = -1;
+
+    /**
+     * @param rects rectangles of the whole map in the {@link CollisionRects#build} layout
+     */
+    @SuppressWarnings("unchecked")
+    public ChunkStreamer(World world, int[] rects, int mapWidth, int mapHeight) {
+        this.world = world;
+        chunksX = Math.max(1, (mapWidth + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        chunksY = Math.max(1, (mapHeight + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        chunkRects = clip(rects, chunksX, chunksY);
+        chunkBodies = new Array[chunksX * chunksY];
+    }
+
+    /**
+     * Clips map rectangles to the chunks they overlap.
+     * @return per chunk, {@link #CHUNK_STRIDE} ints per piece: the rectangle in the {@link CollisionRects#build}
+     *         layout plus the mask of its edges that were cut at a chunk border
+     */
+    static int[][] clip(int[] rects, int chunksX, int chunksY) {
+        int[][] chunkRects = new int[chunksX * chunksY][];
+        int[] counts = new int[chunkRects.length];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < rects.length; i += CollisionRects.STRIDE) {
+                int x = rects[i], y = rects[i + 1], right = x + rects[i + 2], top = y + rects[i + 3];
+                for (int cy = Math.max(0, y / CHUNK_SIZE); cy <= Math.min(chunksY - 1, (top - 1) / CHUNK_SIZE); cy++) {
+                    for (int cx = Math.max(0, x / CHUNK_SIZE); cx <= Math.min(chunksX - 1, (right - 1) / CHUNK_SIZE); cx++) {
+                        int chunk = cx + cy * chunksX;
+                        if (pass == 0) {
+                            counts[chunk]++;
+                            continue;
+                        }
+                        // Clip the rectangle to the chunk
+                        int clipX = Math.max(x, cx * CHUNK_SIZE);
+                        int clipY = Math.max(y, cy * CHUNK_SIZE);
+                        int clipRight = Math.min(right, (cx + 1) * CHUNK_SIZE);
+                        int clipTop = Math.min(top, (cy + 1) * CHUNK_SIZE);
+                        int[] target = chunkRects[chunk];
+                        int offset = counts[chunk]++ * CHUNK_STRIDE;
+                        target[offset] = clipX;
+                        target[offset + 1] = clipY;
+                        target[offset + 2] = clipRight - clipX;
+                        target[offset + 3] = clipTop - clipY;
+                        target[offset + 4] = rects[i + 4];
+                        target[offset + 5] = (clipX > x ? CLIPPED_LEFT : 0) | (clipRight < right ? CLIPPED_RIGHT : 0)
+                            | (clipY > y ? CLIPPED_BOTTOM : 0) | (clipTop < top ? CLIPPED_TOP : 0);
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int chunk = 0; chunk < chunkRects.length; chunk++) {
+                    chunkRects[chunk] = new int[counts[chunk] * CHUNK_STRIDE];
+                    counts[chunk] = 0;
+                }
+            }
+        }
+        return chunkRects;
+    }
+
+    /**
+     * Moves the focus area, usually the camera view, in tiles.
+     * Chunks that fell out of the keep range lose their bodies immediately;
+     * new chunks are created by {@link #loadChunks}.
+     */
+    public void setFocus(float centerX, float centerY, float halfWidth, float halfHeight) {
+        int minX = chunkOf(centerX - halfWidth), maxX = chunkOf(centerX + halfWidth);
+        int minY = chunkOf(centerY - halfHeight), maxY = chunkOf(centerY + halfHeight);
+        if (minX == focusMinX && maxX == focusMaxX && minY == focusMinY && maxY == focusMaxY) return;
+        focusMinX = minX;
+        focusMaxX = maxX;
+        focusMinY = minY;
+        focusMaxY = maxY;
+        loadMinX = Math.max(0, minX - LOAD_MARGIN);
+        loadMinY = Math.max(0, minY - LOAD_MARGIN);
+        loadMaxX = Math.min(chunksX - 1, maxX + LOAD_MARGIN);
+        loadMaxY = Math.min(chunksY - 1, maxY + LOAD_MARGIN);
+
+        for (int i = loaded.size - 1; i >= 0; i--) {
+            int chunk = loaded.get(i);
+            int cx = chunk % chunksX, cy = chunk / chunksX;
+            if (cx < minX - UNLOAD_MARGIN || cx > maxX + UNLOAD_MARGIN
+                || cy < minY - UNLOAD_MARGIN || cy > maxY + UNLOAD_MARGIN) {
+                unloadChunk(chunk);
+            }
+        }
+    }
+
+    /**
+     * Creates the bodies of up to {@code maxChunks} missing chunks of the load range.
+     * @return true when every chunk of the load range is loaded
+     */
+    public boolean loadChunks(int maxChunks) {
+        int created = 0;
+        for (int cy = loadMinY; cy <= loadMaxY; cy++) {
+            for (int cx = loadMinX; cx <= loadMaxX; cx++) {
+                int chunk = cx + cy * chunksX;
+                if (chunkBodies[chunk] != null) continue;
+                if (created == maxChunks) return false;
+                loadChunk(chunk);
+                created++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Share of the load range that already has bodies (0..1).
+     */
+    public float getProgress() {
+        int total = 0, ready = 0;
+        for (int cy = loadMinY; cy <= loadMaxY; cy++) {
+            for (int cx = loadMinX; cx <= loadMaxX; cx++) {
+                total++;
+                if (chunkBodies[cx + cy * chunksX] != null) ready++;
+            }
+        }
+        return total == 0 ? 1f : (float) ready / total;
+    }
+
+    /**
+     * True when every chunk the area touches has its bodies, so nothing inside it can pass through a wall
+     * that is not there yet. Parts of the area outside the map have no walls and count as loaded.
+     */
+    public boolean isLoaded(float left, float bottom, float right, float top) {
+        int minX = Math.max(0, chunkOf(left)), maxX = Math.min(chunksX - 1, chunkOf(right));
+        int minY = Math.max(0, chunkOf(bottom)), maxY = Math.min(chunksY - 1, chunkOf(top));
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                if (chunkBodies[cx + cy * chunksX] == null) return false;
+            }
+        }
+        return true;
+    }
+
+    public int getLoadedChunkCount() {
+        return loaded.size;
+    }
+
+    public int getBodyCount() {
+        return bodyCount;
+    }
+
+    private void loadChunk(int chunk) {
+        int[] rects = chunkRects[chunk];
+        Array<Body> bodies = new Array<>(false, Math.max(1, rects.length / CHUNK_STRIDE));
+        PolygonShape shape = new PolygonShape();
+        for (int i = 0; i < rects.length; i += CHUNK_STRIDE) {
+            int x = rects[i], y = rects[i + 1], w = rects[i + 2], h = rects[i + 3], kind = rects[i + 4];
+            int clipped = rects[i + 5];
+            // Only edges of the merged rectangle are inset; cuts at chunk borders stay flush,
+            // so the pieces of one wall meet without a gap or a corner to snag on
+            float left = x + ((clipped & CLIPPED_LEFT) != 0 ? 0 : WALL_INSET);
+            float right = x + w - ((clipped & CLIPPED_RIGHT) != 0 ? 0 : WALL_INSET);
+            float bottom = y + ((clipped & CLIPPED_BOTTOM) != 0 ? 0 : WALL_INSET);
+            float top = y + h - ((clipped & CLIPPED_TOP) != 0 ? 0 : WALL_INSET);
+            BodyDef bodyDef = new BodyDef();
+            bodyDef.type = BodyDef.BodyType.StaticBody;
+            bodyDef.position.set((left + right) / 2f, (bottom + top) / 2f); // Box2D: 1 unit = 1 tile
+            Body body = world.createBody(bodyDef);
+            shape.setAsBox((right - left) / 2f, (top - bottom) / 2f);
+            Fixture fixture = body.createFixture(shape, 0);
+            // Hazards and triggers only report contacts
+            CollisionCategories.apply(fixture, kind == TileFlags.HAZARD || kind == TileFlags.TRIGGER
+                ? CollisionCategories.TRIGGER : CollisionCategories.WALL);
+            fixture.setUserData(kind);
+            bodies.add(body);
+        }
+        shape.dispose();
+        chunkBodies[chunk] = bodies;
+        loaded.add(chunk);
+        bodyCount += bodies.size;
+    }
+
+    private void unloadChunk(int chunk) {
+        Array<Body> bodies = chunkBodies[chunk];
+        for (Body body : bodies) {
+            world.destroyBody(body);
+        }
+        bodyCount -= bodies.size;
+        loaded.removeValue(chunk);
+        chunkBodies[chunk] = null;
+    }
+
+    private static int chunkOf(float tile) {
+        return (int) Math.floor(tile / CHUNK_SIZE);
+    }
+
+    /**
+     * Destroys every live body. The world itself is owned by the caller.
+     */
+    public void dispose() {
+        while (loaded.size > 0) {
+            unloadChunk(loaded.peek());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.assets.loaders.resolvers.AbsoluteFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.ImageResolver;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.XmlReader.Element;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Build-time tool behind the {@code bakeCollision} Gradle task.
+ * Loads every {@code maps/*.tmx} under the assets directory with libGDX's own TMX loader, minus the
+ * textures, so no GL context is needed; classifies it with {@link TileFlags#fromMap} and
+ * {@link TileFlags#classify}, the same code the game runs without a cache, and writes the merged
+ * rectangles as a {@link CollisionCache} file into the output directory.
+ * <p>
+ * Usage: {@code CollisionBaker <assetsDir> <outDir>}
+ */
+public final class CollisionBaker {
+
+    private CollisionBaker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CollisionBaker <assetsDir> <outDir>");
+            System.exit(1);
+        }
+        File assetsDir = new File(args[0]).getCanonicalFile();
+        File outDir = new File(args[1]);
+        File[] maps = new File(assetsDir, "maps").listFiles((dir, name) -> name.endsWith(".tmx"));
+        if (maps == null) {
+            System.out.println("CollisionBaker: no maps in " + assetsDir);
+            return;
+        }
+        Arrays.sort(maps);
+        MapReader reader = new MapReader();
+        for (File map : maps) {
+            bake(reader, map, new File(outDir, "maps/" + CollisionCache.cachePath(map.getName())));
+        }
+    }
+
+    private static void bake(MapReader reader, File mapFile, File outFile) throws IOException {
+        TiledMap map = reader.read(new FileHandle(mapFile));
+        if (map == null) {
+            System.out.println("CollisionBaker: skipping infinite map " + mapFile.getName());
+            return;
+        }
+        int width = map.getProperties().get("width", Integer.class);
+        int height = map.getProperties().get("height", Integer.class);
+        TileFlags flags = TileFlags.fromMap(map);
+        int[] rects = CollisionRects.build(flags.classify(map), width, height);
+
+        File parent = outFile.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        try (OutputStream out = new FileOutputStream(outFile)) {
+            CollisionCache.write(out, width, height, rects);
+        }
+        System.out.println("CollisionBaker: " + mapFile.getName() + " -> " + rects.length / CollisionRects.STRIDE
+            + " rects" + (flags.isLegacy() ? " (legacy wall ids)" : ""));
+    }
+
+    /**
+     * A TMX loader whose tiles get empty texture regions: tile ids, properties and layers load exactly
+     * as in the game, but no image is ever read or uploaded. Tests load the real maps through it as well.
+     */
+    static final class MapReader extends TmxMapLoader {
+        private static final ImageResolver NO_IMAGES = name -> new TextureRegion();
+
+        MapReader() {
+            super(new AbsoluteFileHandleResolver());
+        }
+
+        /** @return null for infinite maps, which have no fixed size to bake */
+        TiledMap read(FileHandle tmxFile) {
+            root = xml.parse(tmxFile);
+            if (root.getIntAttribute("infinite", 0) == 1) {
+                return null;
+            }
+            return loadTiledMap(tmxFile, new Parameters(), NO_IMAGES);
+        }
+
+        // Same tile ids as TmxMapLoader, counted from the image size in the tileset instead of the texture
+        @Override
+        protected void addStaticTiles(FileHandle tmxFile, ImageResolver imageResolver, TiledMapTileSet tileSet,
+                                      Element element, Array<Element> tileElements, String name, int firstgid,
+                                      int tilewidth, int tileheight, int spacing, int margin, String source,
+                                      int offsetX, int offsetY, String imageSource, int imageWidth, int imageHeight,
+                                      FileHandle image) {
+            if (image != null) {
+                int id = firstgid;
+                for (int y = margin; y <= imageHeight - tileheight; y += tileheight + spacing) {
+                    for (int x = margin; x <= imageWidth - tilewidth; x += tilewidth + spacing) {
+                        addStaticTiledMapTile(tileSet, imageResolver.getImage(null), id++, offsetX, offsetY);
+                    }
+                }
+            } else {
+                for (Element tileElement : tileElements) {
+                    int id = firstgid + tileElement.getIntAttribute("id", 0);
+                    addStaticTiledMapTile(tileSet, imageResolver.getImage(null), id, offsetX, offsetY);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary collision geometry baked per map by {@link CollisionBaker}.
+ * A {@code maps/level.tmx} has its rectangles in {@code maps/level.col}.
+ * <p>
+ * Freshness is a build-time matter: the {@code bakeCollision} task takes every map, tileset and the
+ * baker itself as inputs, so a build always ships caches made from the maps next to them. Loading
+ * reads nothing but the cache; the version and the map size it records are the only runtime checks.
+ * <p>
+ * Layout, big-endian: magic, version, width, height, rectangle count and per rectangle
+ * {@code short x, short y, short width, short height, byte kind}.
+ */
+public final class CollisionCache {
+    static final int MAGIC = 0x4E434F4C; // "NCOL"
+    /** Bump whenever the layout, TileFlags or CollisionRects change what gets generated. */
+    static final int VERSION = 2;
+
+    private CollisionCache() {
+    }
+
+    /**
+     * Returns the cache path for a map path, e.g. {@code maps/level_2.col}.
+     */
+    public static String cachePath(String mapPath) {
+        int dot = mapPath.lastIndexOf('.');
+        return (dot > 0 ? mapPath.substring(0, dot) : mapPath) + ".col";
+    }
+
+    /**
+     * Loads the baked rectangles of a map in the {@link CollisionRects#build} layout.
+     * @return null when there is no cache file, or it is from another version or for a map of another size
+     */
+    public static int[] load(String mapPath, int width, int height) {
+        FileHandle file = Gdx.files.internal(cachePath(mapPath));
+        if (!file.exists()) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = file.map();
+        } catch (GdxRuntimeException e) {
+            // Packed in a jar or on a backend without mapping support: one plain read
+            buffer = ByteBuffer.wrap(file.readBytes());
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            if (buffer.getInt() != width || buffer.getInt() != height) {
+                return null;
+            }
+            int count = buffer.getInt();
+            int[] rects = new int[count * CollisionRects.STRIDE];
+            for (int i = 0; i < rects.length; i += CollisionRects.STRIDE) {
+                rects[i] = buffer.getShort();
+                rects[i + 1] = buffer.getShort();
+                rects[i + 2] = buffer.getShort();
+                rects[i + 3] = buffer.getShort();
+                rects[i + 4] = buffer.get();
+            }
+            return rects;
+        } catch (BufferUnderflowException e) {
+            System.err.println("CollisionCache: truncated " + file.path());
+            return null;
+        }
+    }
+
+    /**
+     * Writes a cache file; used by {@link CollisionBaker} at build time.
+     */
+    static void write(OutputStream output, int width, int height, int[] rects) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(rects.length / CollisionRects.STRIDE);
+        for (int i = 0; i < rects.length; i += CollisionRects.STRIDE) {
+            out.writeShort(rects[i]);
+            out.writeShort(rects[i + 1]);
+            out.writeShort(rects[i + 2]);
+            out.writeShort(rects[i + 3]);
+            out.writeByte(rects[i + 4]);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,90 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.physics.box2d.Filter;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+
+/**
+ * Box2D collision categories of every fixture in the game and the masks they pair with.
+ * Solid fixtures (walls, bodies) push each other; the sensor categories only report contacts
+ * to {@link GameContactListener}, and their masks keep the broadphase from pairing fixtures
+ * no gameplay system cares about, so an attack hitbox never touches a pickup and enemies
+ * never touch triggers.
+ */
+public final class CollisionCategories {
+    /** Map walls, doors and other static obstacles. */
+    public static final short WALL = 0x0001;
+    /** The player's body, also its hurtbox. */
+    public static final short PLAYER = 0x0002;
+    /** Enemy and boss bodies, also their hurtboxes. */
+    public static final short ENEMY = 0x0004;
+    /** Player attack hitbox sensor; its mask is empty while the player is not attacking. */
+    public static final short PLAYER_ATTACK = 0x0008;
+    /** Enemy and boss attack hitbox sensors. */
+    public static final short ENEMY_ATTACK = 0x0010;
+    /** Pickup sensors, resolved as soon as the player touches them. */
+    public static final short PICKUP = 0x0020;
+    /** Interaction zones and trigger or hazard tiles. */
+    public static final short TRIGGER = 0x0040;
+
+    private CollisionCategories() {}
+
+    /**
+     * Categories a fixture of the given category collides with or senses.
+     */
+    public static short maskOf(short category) {
+        switch (category) {
+            case WALL:
+                return PLAYER | ENEMY;
+            case PLAYER:
+                return WALL | ENEMY | ENEMY_ATTACK | PICKUP | TRIGGER;
+            case ENEMY:
+                return WALL | PLAYER | ENEMY | PLAYER_ATTACK;
+            case PLAYER_ATTACK:
+                return ENEMY;
+            case ENEMY_ATTACK:
+            case PICKUP:
+            case TRIGGER:
+                return PLAYER;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Sets the category and its mask on a fixture definition; sensor categories also become sensors.
+     */
+    public static FixtureDef apply(FixtureDef def, short category) {
+        def.filter.categoryBits = category;
+        def.filter.maskBits = maskOf(category);
+        def.isSensor = isSensor(category);
+        return def;
+    }
+
+    /**
+     * Sets the category and its mask on an existing fixture.
+     */
+    public static void apply(Fixture fixture, short category) {
+        setFilter(fixture, category, maskOf(category));
+        fixture.setSensor(isSensor(category));
+    }
+
+    /**
+     * Changes only the mask of a fixture, e.g. to switch a hitbox on and off without recreating it.
+     * Box2D refilters the fixture's contacts on the next step.
+     */
+    public static void setMask(Fixture fixture, short mask) {
+        setFilter(fixture, fixture.getFilterData().categoryBits, mask);
+    }
+
+    public static boolean isSensor(short category) {
+        return category == PLAYER_ATTACK || category == ENEMY_ATTACK || category == PICKUP || category == TRIGGER;
+    }
+
+    private static void setFilter(Fixture fixture, short category, short mask) {
+        Filter filter = fixture.getFilterData();
+        filter.categoryBits = category;
+        filter.maskBits = mask;
+        fixture.setFilterData(filter);
+    }
+}
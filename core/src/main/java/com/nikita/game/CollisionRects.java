@@ -0,0 +1,110 @@
+package com.nikita.game;
+
+/**
+ * Merges a grid of solid tiles into axis-aligned rectangles, so that a long wall
+ * becomes one Box2D body instead of one body per tile.
+ * Greedy: each unclaimed solid cell starts a run that is widened along the row
+ * and then grown upwards while the whole run stays solid and unclaimed.
+ * Every solid cell ends up in exactly one rectangle.
+ */
+public final class CollisionRects {
+    /** Ints per rectangle in {@link #build}: x, y, width, height, kind. */
+    public static final int STRIDE = 5;
+
+    /** Kinds merged by {@link #build}, in output order. */
+    private static final int[] KINDS = {TileFlags.COLLIDES, TileFlags.ONE_WAY, TileFlags.HAZARD, TileFlags.TRIGGER};
+
+    private CollisionRects() {
+    }
+
+    /**
+     * Merges every collision kind of a classified map separately.
+     * A cell that collides is never also reported as one-way.
+     * @param cells {@link TileFlags} per cell, indexed {@code x + y * width}
+     * @return rectangles packed as {@code x, y, width, height, kind}, see {@link #STRIDE}
+     */
+    public static int[] build(byte[] cells, int width, int height) {
+        int[] result = new int[0];
+        boolean[] grid = new boolean[cells.length];
+        for (int kind : KINDS) {
+            boolean any = false;
+            for (int i = 0; i < cells.length; i++) {
+                int flags = cells[i];
+                boolean match = kind == TileFlags.ONE_WAY
+                    ? (flags & (TileFlags.ONE_WAY | TileFlags.COLLIDES)) == TileFlags.ONE_WAY
+                    : (flags & kind) != 0;
+                grid[i] = match;
+                any |= match;
+            }
+            if (!any) continue;
+
+            int[] merged = merge(grid, width, height);
+            int offset = result.length;
+            int[] grown = new int[offset + merged.length / 4 * STRIDE];
+            System.arraycopy(result, 0, grown, 0, offset);
+            for (int i = 0; i < merged.length; i += 4) {
+                System.arraycopy(merged, i, grown, offset, 4);
+                grown[offset + 4] = kind;
+                offset += STRIDE;
+            }
+            result = grown;
+        }
+        return result;
+    }
+
+    /**
+     * @param solid  solid flags, indexed {@code x + y * width}
+     * @param width  grid width in tiles
+     * @param height grid height in tiles
+     * @return rectangles packed as {@code x, y, width, height} quadruples, in tiles
+     */
+    public static int[] merge(boolean[] solid, int width, int height) {
+        boolean[] claimed = new boolean[width * height];
+        int[] rects = new int[16];
+        int size = 0;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int start = x + y * width;
+                if (!solid[start] || claimed[start]) continue;
+
+                int runWidth = 1;
+                while (x + runWidth < width && solid[start + runWidth] && !claimed[start + runWidth]) {
+                    runWidth++;
+                }
+
+                int runHeight = 1;
+                grow:
+                while (y + runHeight < height) {
+                    int row = start + runHeight * width;
+                    for (int i = 0; i < runWidth; i++) {
+                        if (!solid[row + i] || claimed[row + i]) break grow;
+                    }
+                    runHeight++;
+                }
+
+                for (int j = 0; j < runHeight; j++) {
+                    int row = start + j * width;
+                    for (int i = 0; i < runWidth; i++) {
+                        claimed[row + i] = true;
+                    }
+                }
+
+                if (size + 4 > rects.length) {
+                    int[] grown = new int[rects.length * 2];
+                    System.arraycopy(rects, 0, grown, 0, size);
+                    rects = grown;
+                }
+                rects[size++] = x;
+                rects[size++] = y;
+                rects[size++] = runWidth;
+                rects[size++] = runHeight;
+                x += runWidth - 1;
+            }
+        }
+
+        int[] result = new int[size];
+        System.arraycopy(rects, 0, result, 0, size);
+        return result;
+    }
+}
@@ -1,7 +1,6 @@
 package com.nikita.game;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
@@ -31,26 +30,19 @@ public class DialogueManager {
     private BitmapFont font;
     private BitmapFont speakerFont;
     private ObjectMap<String, Texture> portraits;
+    private ObjectMap<String, String> portraitPaths;
     private int selectedChoice;
     private Map<String, Runnable> actionHandlers;
 
     public DialogueManager() {
         nodes = new ObjectMap<>();
         portraits = new ObjectMap<>();
+        portraitPaths = new ObjectMap<>();
         actionHandlers = new HashMap<>();
 
-        // Initialize fonts
-        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("fonts/pixel.ttf"));
-        FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
-        parameter.size = 16;
-        parameter.color = Color.WHITE;
-        font = generator.generateFont(parameter);
-
-        parameter.size = 20;
-        parameter.color = Color.YELLOW;
-        speakerFont = generator.generateFont(parameter);
-
-        generator.dispose();
+        // Initialize fonts (shared through FontManager, not disposed here)
+        font = FontManager.get("fonts/pixel.ttf", 16, FreeTypeFontGenerator.DEFAULT_CHARS, Color.WHITE);
+        speakerFont = FontManager.get("fonts/pixel.ttf", 20, FreeTypeFontGenerator.DEFAULT_CHARS, Color.YELLOW);
     }
 
     /**
@@ -65,7 +57,8 @@ public class DialogueManager {
      */
     public void loadPortrait(String speakerName, String portraitPath) {
         if (!portraits.containsKey(speakerName)) {
-            portraits.put(speakerName, new Texture(Gdx.files.internal(portraitPath)));
+            portraits.put(speakerName, GameAssets.acquireTexture(portraitPath));
+            portraitPaths.put(speakerName, portraitPath);
         }
     }
 
@@ -90,13 +83,13 @@ public class DialogueManager {
     }
 
     /**
-     * Updates the dialogue state based on user input.
+     * Updates the dialogue state based on the actions of this frame.
      */
-    public void update() {
+    public void update(InputActions input) {
         if (!active || currentNode == null) return;
 
         if (currentNode.isTextNode()) {
-            if (Gdx.input.isKeyJustPressed(Input.Keys.E) || Gdx.input.justTouched()) {
+            if (input.isPressed(InputActions.INTERACT | InputActions.CLICK)) {
                 if (currentNode.getNext() != null) {
                     currentNode = nodes.get(currentNode.getNext());
                 } else {
@@ -105,11 +98,11 @@ public class DialogueManager {
             }
         } else if (currentNode.isChoiceNode()) {
             // Handle choice selection
-            if (Gdx.input.isKeyJustPressed(Input.Keys.UP)) {
+            if (input.isPressed(InputActions.UP)) {
                 selectedChoice = Math.max(0, selectedChoice - 1);
-            } else if (Gdx.input.isKeyJustPressed(Input.Keys.DOWN)) {
+            } else if (input.isPressed(InputActions.DOWN)) {
                 selectedChoice = Math.min(currentNode.getChoices().size() - 1, selectedChoice + 1);
-            } else if (Gdx.input.isKeyJustPressed(Input.Keys.E) || Gdx.input.justTouched()) {
+            } else if (input.isPressed(InputActions.INTERACT | InputActions.CLICK)) {
                 // Select the current choice
                 DialogueChoice choice = currentNode.getChoices().get(selectedChoice);
                 currentNode = nodes.get(choice.getNext());
@@ -187,10 +180,10 @@ public class DialogueManager {
      * Disposes of resources.
      */
     public void dispose() {
-        font.dispose();
-        speakerFont.dispose();
-        for (Texture texture : portraits.values()) {
-            texture.dispose();
+        for (String path : portraitPaths.values()) {
+            GameAssets.release(path);
         }
+        portraits.clear();
+        portraitPaths.clear();
     }
 }
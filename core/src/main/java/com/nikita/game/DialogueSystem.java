@@ -3,19 +3,12 @@ package com.nikita.game;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 
 public class DialogueSystem {
     private String[] lines;
     private int currentLine = 0;
     private boolean active = false;
-    private BitmapFont font;
-
-    public DialogueSystem() {
-        font = new BitmapFont();
-        font.setColor(Color.WHITE);
-    }
+    private BitmapFont font; // Создается при первой отрисовке: сама система может жить в потоке симуляции
 
     public void startDialogue(String[] lines) {
         this.lines = lines;
@@ -24,7 +17,14 @@ public class DialogueSystem {
     }
 
     public void update() {
-        if (active && Gdx.input.isKeyJustPressed(Input.Keys.E)) {
+        update(InputQueue.frame().isPressed(InputActions.INTERACT));
+    }
+
+    /**
+     * Переходит к следующей реплике, если advance (нажата E с прошлого шага)
+     */
+    public void update(boolean advance) {
+        if (active && advance) {
             currentLine++;
             if (currentLine >= lines.length) {
                 active = false;
@@ -32,13 +32,37 @@ public class DialogueSystem {
         }
     }
 
-    public void render(SpriteBatch batch) {
+    /**
+     * Текущая реплика или null, если диалог закрыт
+     */
+    public String getCurrentLine() {
         if (active && lines != null && currentLine < lines.length) {
-            font.draw(batch, lines[currentLine], 50, 100);
+            return lines[currentLine];
         }
+        return null;
+    }
+
+    public void render(SpriteBatch batch) {
+        render(batch, getCurrentLine());
+    }
+
+    /**
+     * Рисует реплику, например из снимка симуляции
+     */
+    public void render(SpriteBatch batch, String line) {
+        if (line == null) return;
+        if (font == null) {
+            font = new BitmapFont();
+            font.setColor(Color.WHITE);
+        }
+        font.draw(batch, line, 50, 100);
     }
 
     public boolean isActive() {
         return active;
     }
+
+    public void dispose() {
+        if (font != null) font.dispose();
+    }
 } 
\ No newline at end of file
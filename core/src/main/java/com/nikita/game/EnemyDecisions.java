@@ -0,0 +1,165 @@
+package com.nikita.game;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Patrol and chase decisions of the {@link EnemyStore} enemies, over plain arrays indexed by slot.
+ * The store fills in positions and current velocities, lists the due slots in {@link #batch} and calls
+ * {@link #decide}, which writes each listed slot's state, patrol direction and velocity, and whether
+ * that velocity differs from the current one. Nothing here touches Box2D.
+ * <p>
+ * A decision reads the shared inputs and writes only its own slot, so with many enemies the batch is
+ * split into {@link #BATCH}-sized leaves on the common {@link ForkJoinPool}, and the result is the same
+ * as a serial run whatever the split. The task tree is kept and reinitialized every tick, and steering
+ * reads flow field directions by index, so deciding allocates nothing once the tree has grown to the
+ * largest batch.
+ */
+final class EnemyDecisions {
+    static final byte PATROL = 0;
+    static final byte CHASE = 1;
+    static final byte DEAD = 2;
+    static final float SPEED = 2f;
+    /** Enemies start chasing closer than this and give up beyond {@link #CHASE_STOP}. */
+    static final float CHASE_START = 4f, CHASE_STOP = 6f;
+    /** Enemies per fork-join leaf; fewer than twice this are decided on the calling thread. */
+    static final int BATCH = 64;
+
+    float[] x, y, velocityX, velocityY;
+    float[] patrolMin, patrolMax;
+    byte[] state, direction; // direction: +1 patrols right, -1 left
+    boolean[] changed; // The last decision differs from the velocity before it
+    /** Slots to decide, the first {@link #batchCount} entries. */
+    int[] batch;
+    int batchCount;
+
+    private final Root root = new Root();
+    private Leaf[] leaves = new Leaf[0];
+    private int leafCount;
+    // Inputs of the running parallel decision, read by the leaves
+    private float playerX, playerY;
+    private FlowField flowField;
+
+    EnemyDecisions(int capacity) {
+        grow(capacity);
+    }
+
+    void grow(int capacity) {
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        velocityX = grow(velocityX, capacity);
+        velocityY = grow(velocityY, capacity);
+        patrolMin = grow(patrolMin, capacity);
+        patrolMax = grow(patrolMax, capacity);
+        state = state == null ? new byte[capacity] : Arrays.copyOf(state, capacity);
+        direction = direction == null ? new byte[capacity] : Arrays.copyOf(direction, capacity);
+        changed = changed == null ? new boolean[capacity] : Arrays.copyOf(changed, capacity);
+        batch = batch == null ? new int[capacity] : Arrays.copyOf(batch, capacity);
+    }
+
+    private static float[] grow(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /**
+     * Decides every slot of the batch.
+     * @param flowField shared directions towards the player, only read; null chases in a straight line
+     * @param parallel  split large batches across the common pool
+     */
+    void decide(float playerX, float playerY, FlowField flowField, boolean parallel) {
+        if (!parallel || batchCount < 2 * BATCH) {
+            decide(0, batchCount, playerX, playerY, flowField);
+            return;
+        }
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.flowField = flowField;
+        leafCount = (batchCount + BATCH - 1) / BATCH;
+        if (leaves.length < leafCount) {
+            int created = leaves.length;
+            leaves = Arrays.copyOf(leaves, leafCount);
+            for (int i = created; i < leafCount; i++) {
+                leaves[i] = new Leaf(i);
+            }
+        }
+        root.reinitialize();
+        ForkJoinPool.commonPool().invoke(root);
+        this.flowField = null;
+    }
+
+    // Decides the velocity of the slots batch[from..to) from their positions and the player's.
+    // Reads positions, writes state, direction and velocity of its own slots only
+    private void decide(int from, int to, float playerX, float playerY, FlowField flowField) {
+        for (int i = from; i < to; i++) {
+            int slot = batch[i];
+            float ex = x[slot], ey = y[slot];
+            float vy = velocityY[slot];
+
+            float dx = playerX - ex, dy = playerY - ey;
+            float distance2 = dx * dx + dy * dy;
+            if (distance2 < CHASE_START * CHASE_START) {
+                state[slot] = CHASE;
+            } else if (state[slot] == CHASE && distance2 > CHASE_STOP * CHASE_STOP) {
+                state[slot] = PATROL;
+                vy = 0; // Vertical chase speed must not carry over into the patrol
+            }
+
+            float vx;
+            if (state[slot] == CHASE) {
+                int d = flowField != null ? flowField.getDirectionIndex(ex, ey) : -1;
+                if (d >= 0) {
+                    // Around walls along the flow field: one array read
+                    vx = FlowField.directionX(d) * SPEED;
+                    vy = FlowField.directionY(d) * SPEED;
+                } else {
+                    vx = Math.signum(dx) * SPEED;
+                }
+            } else if (direction[slot] > 0) {
+                vx = SPEED;
+                if (ex > patrolMax[slot]) direction[slot] = -1;
+            } else {
+                vx = -SPEED;
+                if (ex < patrolMin[slot]) direction[slot] = 1;
+            }
+            changed[slot] = vx != velocityX[slot] || vy != velocityY[slot];
+            velocityX[slot] = vx;
+            velocityY[slot] = vy;
+        }
+    }
+
+    /**
+     * Forks every leaf but the first, decides the first on its own thread and joins the rest
+     * in the order they sit on top of its queue.
+     */
+    private final class Root extends RecursiveAction {
+        @Override
+        protected void compute() {
+            for (int i = leafCount - 1; i > 0; i--) {
+                leaves[i].reinitialize();
+                leaves[i].fork();
+            }
+            decide(0, BATCH, playerX, playerY, flowField);
+            for (int i = 1; i < leafCount; i++) {
+                leaves[i].join();
+            }
+        }
+    }
+
+    /**
+     * The {@link #BATCH} slots of the batch starting at {@code index * BATCH}.
+     */
+    private final class Leaf extends RecursiveAction {
+        private final int index;
+
+        Leaf(int index) {
+            this.index = index;
+        }
+
+        @Override
+        protected void compute() {
+            int from = index * BATCH;
+            decide(from, Math.min(batchCount, from + BATCH), playerX, playerY, flowField);
+        }
+    }
+}
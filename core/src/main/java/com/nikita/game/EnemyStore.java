@@ -0,0 +1,437 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+
+import java.util.Arrays;
+
+/**
+ * The enemies of one simulation, kept as parallel primitive arrays indexed by slot: position,
+ * previous position, velocity, patrol range, health and AI state, plus the Box2D body that owns the
+ * physics. The per-tick systems ({@link #savePreviousPositions}, {@link #update}, {@link #addSprites})
+ * walk a dense list of active slots and touch only the arrays they need, with no virtual calls and
+ * no allocation.
+ * <p>
+ * Slots are stable for the lifetime of the store. A released slot keeps its body, switched off, and
+ * is reused by the next {@link #spawn}, so enemies that come and go create no Box2D bodies after the
+ * first wave. Fixtures carry a {@link Ref} as user data; {@link #slotOf} maps a contact back to its slot.
+ * <p>
+ * Box2D is not thread-safe, so {@link #update} touches the bodies only on the calling thread, before and
+ * after the decisions. The decisions themselves, in {@link EnemyDecisions}, read the copied positions and
+ * write nothing but their own slot, so with many enemies they are split across the common fork-join pool;
+ * the result is the same as a serial run, whatever the split. {@code -Dnikita.ai.serial=true} keeps them
+ * on one thread.
+ * <p>
+ * Not every enemy decides every tick. Enemies in view or near the player do; farther ones every 4th
+ * or 8th tick and keep their last velocity in between.
+ * <p>
+ * With {@link #setTerrain} an enemy is frozen, its body switched off, as soon as it comes within
+ * {@link #FREEZE_MARGIN} of a collision chunk that has no bodies, so it can neither walk nor fall through
+ * walls that are not there yet; it thaws when a later check finds its chunks loaded.
+ * At most {@code -Dnikita.ai.budget} (default 256) enemies decide per tick; due
+ * enemies over the budget go first on the next tick. The budget counts decisions rather than time, so
+ * a replay schedules exactly like its recording.
+ */
+public final class EnemyStore {
+    static final String TEXTURE = "enemy.png";
+    private static final int MAX_HEALTH = 2;
+    static final float HALF_WIDTH = 0.4f, HALF_HEIGHT = 0.9f;
+    private static final float SPRITE_WIDTH = 0.8f, SPRITE_HEIGHT = 1.8f;
+    // Attack sensor radius: with the player's half width (0.4) an enemy hits from 1.0 between centres
+    private static final float ATTACK_RADIUS = 0.6f;
+    private static final boolean SERIAL_AI = Boolean.getBoolean("nikita.ai.serial");
+
+    // Level of detail: enemies in view or within FULL_RANGE of the player decide every tick
+    private static final float FULL_RANGE = 10f;
+    /** Up to {@link #MID_RANGE} enemies decide every {@link #MID_PERIOD}th tick, beyond it every {@link #FAR_PERIOD}th. */
+    private static final float MID_RANGE = 20f;
+    private static final int MID_PERIOD = 4, FAR_PERIOD = 8;
+    /** Frozen enemies look at their chunks every {@link #FROZEN_PERIOD}th tick. */
+    private static final int FROZEN_PERIOD = 16;
+    /** Tiles around the body that must be loaded; more than any enemy moves in a tick. */
+    private static final float FREEZE_MARGIN = 1f;
+    private static final int DEFAULT_AI_BUDGET = 256;
+    private static final int AI_BUDGET = Math.max(1, Integer.getInteger("nikita.ai.budget", DEFAULT_AI_BUDGET));
+
+    /**
+     * Fixture user data of an enemy.
+     */
+    static final class Ref {
+        final EnemyStore store;
+        final int slot;
+
+        Ref(EnemyStore store, int slot) {
+            this.store = store;
+            this.slot = slot;
+        }
+    }
+
+    private final World world;
+    private ChunkStreamer terrain;
+    private final TextureRegion region;
+    private boolean disposed = false;
+
+    private int size; // Slots created so far
+    private Body[] bodies;
+    private Ref[] refs;
+    /** Positions, velocities, patrol ranges and AI state, shared with the decisions. */
+    private final EnemyDecisions ai = new EnemyDecisions(0);
+    private float[] previousX, previousY;
+    private byte[] health;
+    private int[] tags;
+    private int[] nextThink; // Tick of the next decision
+    private boolean[] frozen;
+
+    // Active slots, densely packed for the system loops; activeIndex[slot] is -1 when inactive
+    private int[] active;
+    private int[] activeIndex;
+    private int activeCount;
+
+    // Released slots whose bodies wait for reuse
+    private int[] free;
+    private int freeCount;
+
+    // Scheduling: where the round-robin walk over active continues; the due slots go to ai.batch
+    private int cursor;
+    private int tick;
+    private float viewX, viewY;
+    private float viewHalfWidth = Float.POSITIVE_INFINITY, viewHalfHeight = Float.POSITIVE_INFINITY;
+
+    /**
+     * Takes a reference to the enemy texture, so call it on the render thread.
+     */
+    public EnemyStore(World world) {
+        this(world, 16);
+    }
+
+    public EnemyStore(World world, int initialCapacity) {
+        this.world = world;
+        region = GameAssets.acquireRegion(TEXTURE);
+        grow(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * Activates an enemy at a position, reusing a released slot when there is one.
+     * @return the enemy's slot
+     */
+    public int spawn(float x, float y, float patrolMin, float patrolMax) {
+        int slot = freeCount > 0 ? free[--freeCount] : createSlot(x, y);
+        reset(slot, x, y, patrolMin, patrolMax);
+        setActive(slot, true);
+        return slot;
+    }
+
+    private int createSlot(float x, float y) {
+        if (size == bodies.length) grow(size * 2);
+        int slot = size++;
+        refs[slot] = new Ref(this, slot);
+        activeIndex[slot] = -1;
+
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        bodyDef.position.set(x, y);
+        Body body = world.createBody(bodyDef);
+
+        PolygonShape shape = new PolygonShape();
+        shape.setAsBox(HALF_WIDTH, HALF_HEIGHT);
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        fixtureDef.density = 1f;
+        fixtureDef.friction = 0.2f;
+        CollisionCategories.apply(fixtureDef, CollisionCategories.ENEMY); // The body is also the hurtbox
+        body.createFixture(fixtureDef).setUserData(refs[slot]);
+        shape.dispose();
+
+        CircleShape attackShape = new CircleShape();
+        attackShape.setRadius(ATTACK_RADIUS);
+        FixtureDef attackDef = new FixtureDef();
+        attackDef.shape = attackShape;
+        CollisionCategories.apply(attackDef, CollisionCategories.ENEMY_ATTACK);
+        body.createFixture(attackDef).setUserData(refs[slot]);
+        attackShape.dispose();
+
+        bodies[slot] = body;
+        return slot;
+    }
+
+    private void grow(int capacity) {
+        bodies = bodies == null ? new Body[capacity] : Arrays.copyOf(bodies, capacity);
+        refs = refs == null ? new Ref[capacity] : Arrays.copyOf(refs, capacity);
+        ai.grow(capacity);
+        previousX = grow(previousX, capacity);
+        previousY = grow(previousY, capacity);
+        health = grow(health, capacity);
+        tags = grow(tags, capacity);
+        nextThink = grow(nextThink, capacity);
+        frozen = grow(frozen, capacity);
+        active = grow(active, capacity);
+        activeIndex = grow(activeIndex, capacity);
+        free = grow(free, capacity);
+    }
+
+    private static float[] grow(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static byte[] grow(byte[] array, int capacity) {
+        return array == null ? new byte[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static int[] grow(int[] array, int capacity) {
+        return array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static boolean[] grow(boolean[] array, int capacity) {
+        return array == null ? new boolean[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /**
+     * Puts an enemy back to its spawn state at a position, without a new body.
+     */
+    public void reset(int slot, float x, float y, float patrolMin, float patrolMax) {
+        ai.x[slot] = previousX[slot] = x; // No interpolation from where it died
+        ai.y[slot] = previousY[slot] = y;
+        ai.velocityX[slot] = ai.velocityY[slot] = 0;
+        ai.patrolMin[slot] = patrolMin;
+        ai.patrolMax[slot] = patrolMax;
+        health[slot] = MAX_HEALTH;
+        ai.state[slot] = EnemyDecisions.PATROL;
+        ai.direction[slot] = 1;
+        nextThink[slot] = tick; // Decides on the next update, whatever its distance
+        Body body = bodies[slot];
+        if (frozen[slot]) {
+            frozen[slot] = false;
+            if (activeIndex[slot] >= 0) body.setActive(true);
+        }
+        body.setTransform(x, y, 0);
+        body.setLinearVelocity(0, 0);
+        body.setAngularVelocity(0);
+        body.setAwake(true);
+    }
+
+    /**
+     * Switches an enemy's body on or off; inactive enemies are skipped by every system.
+     */
+    public void setActive(int slot, boolean on) {
+        if (on == (activeIndex[slot] >= 0)) return;
+        bodies[slot].setActive(on && !frozen[slot]);
+        if (on) {
+            activeIndex[slot] = activeCount;
+            active[activeCount++] = slot;
+        } else {
+            // Swap-remove; loops that deactivate while walking backwards still visit every slot once
+            int index = activeIndex[slot];
+            int last = active[--activeCount];
+            active[index] = last;
+            activeIndex[last] = index;
+            activeIndex[slot] = -1;
+        }
+    }
+
+    /**
+     * Deactivates an enemy and hands its slot to the next {@link #spawn}.
+     */
+    public void release(int slot) {
+        if (activeIndex[slot] < 0) return;
+        setActive(slot, false);
+        free[freeCount++] = slot;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Slot of the i-th active enemy, {@code 0 <= i < getActiveCount()}.
+     */
+    public int getActiveSlot(int i) {
+        return active[i];
+    }
+
+    /**
+     * The slot a fixture's user data belongs to, or -1 if it is not an enemy of this store.
+     */
+    public int slotOf(Object owner) {
+        return owner instanceof Ref && ((Ref) owner).store == this ? ((Ref) owner).slot : -1;
+    }
+
+    /**
+     * Owner-defined value, e.g. the spawn table index of a level enemy.
+     */
+    public int getTag(int slot) {
+        return tags[slot];
+    }
+
+    public void setTag(int slot, int tag) {
+        tags[slot] = tag;
+    }
+
+    public float getX(int slot) {
+        return ai.x[slot];
+    }
+
+    public float getY(int slot) {
+        return ai.y[slot];
+    }
+
+    public int getHealth(int slot) {
+        return health[slot];
+    }
+
+    public boolean isDead(int slot) {
+        return ai.state[slot] == EnemyDecisions.DEAD;
+    }
+
+    public void takeDamage(int slot, int damage) {
+        if (ai.state[slot] == EnemyDecisions.DEAD) return;
+        health[slot] -= damage;
+        if (health[slot] <= 0) {
+            ai.state[slot] = EnemyDecisions.DEAD;
+            System.out.println("💀 Враг убит!");
+        }
+    }
+
+    /**
+     * The visible area; enemies in it decide every tick. Without a view only the distance to the player counts.
+     */
+    public void setView(float centerX, float centerY, float halfWidth, float halfHeight) {
+        viewX = centerX;
+        viewY = centerY;
+        viewHalfWidth = halfWidth;
+        viewHalfHeight = halfHeight;
+    }
+
+    /**
+     * The streamed level collision; enemies are frozen where it has no bodies yet. Null never freezes.
+     */
+    public void setTerrain(ChunkStreamer terrain) {
+        this.terrain = terrain;
+    }
+
+    /**
+     * Remembers every active enemy's position before a physics step, for render interpolation.
+     */
+    public void savePreviousPositions() {
+        for (int i = 0; i < activeCount; i++) {
+            int slot = active[i];
+            previousX[slot] = ai.x[slot];
+            previousY[slot] = ai.y[slot];
+        }
+    }
+
+    /**
+     * One tick of enemy behaviour: reads positions back from the bodies after the physics step,
+     * runs patrol and chase for the living active enemies that are due, in parallel when there are many,
+     * and hands the velocities that changed to the bodies.
+     * @param flowField shared directions towards the player, only read; null chases in a straight line
+     */
+    public void update(float playerX, float playerY, FlowField flowField) {
+        tick++;
+        readBodies();
+        schedule(playerX, playerY);
+        ai.decide(playerX, playerY, flowField, !SERIAL_AI);
+        writeBodies();
+    }
+
+    // Frozen bodies do not move. The others are frozen right away when they near an unloaded chunk,
+    // due or not, since they keep moving between decisions
+    private void readBodies() {
+        for (int i = 0; i < activeCount; i++) {
+            int slot = active[i];
+            if (frozen[slot]) continue;
+            readPosition(slot);
+            if (ai.state[slot] != EnemyDecisions.DEAD && !isTerrainLoaded(slot)) freeze(slot);
+        }
+    }
+
+    private void readPosition(int slot) {
+        Vector2 position = bodies[slot].getPosition();
+        ai.x[slot] = position.x;
+        ai.y[slot] = position.y;
+    }
+
+    // Collects the due enemies into batch, at most AI_BUDGET, starting where the last walk stopped,
+    // and gives each its next decision tick by distance. Frozen ones only check their chunks
+    private void schedule(float playerX, float playerY) {
+        ai.batchCount = 0;
+        int index = cursor < activeCount ? cursor : 0;
+        for (int n = 0; n < activeCount; n++, index = index + 1 < activeCount ? index + 1 : 0) {
+            int slot = active[index];
+            if (ai.state[slot] == EnemyDecisions.DEAD || nextThink[slot] - tick > 0) continue;
+            if (ai.batchCount == AI_BUDGET) break; // The rest is due first on the next tick
+            Body body = bodies[slot];
+            if (frozen[slot]) {
+                if (!isTerrainLoaded(slot)) {
+                    nextThink[slot] = tick + FROZEN_PERIOD;
+                    continue;
+                }
+                frozen[slot] = false;
+                body.setActive(true);
+            }
+
+            float dx = ai.x[slot] - playerX, dy = ai.y[slot] - playerY;
+            float distance2 = dx * dx + dy * dy;
+            boolean visible = Math.abs(ai.x[slot] - viewX) <= viewHalfWidth && Math.abs(ai.y[slot] - viewY) <= viewHalfHeight;
+            int period = visible || distance2 < FULL_RANGE * FULL_RANGE ? 1
+                : distance2 < MID_RANGE * MID_RANGE ? MID_PERIOD : FAR_PERIOD;
+            nextThink[slot] = tick + period;
+
+            Vector2 velocity = body.getLinearVelocity();
+            ai.velocityX[slot] = velocity.x;
+            ai.velocityY[slot] = velocity.y;
+            ai.batch[ai.batchCount++] = slot;
+        }
+        cursor = index;
+    }
+
+    private boolean isTerrainLoaded(int slot) {
+        return terrain == null || terrain.isLoaded(ai.x[slot] - HALF_WIDTH - FREEZE_MARGIN, ai.y[slot] - HALF_HEIGHT - FREEZE_MARGIN,
+            ai.x[slot] + HALF_WIDTH + FREEZE_MARGIN, ai.y[slot] + HALF_HEIGHT + FREEZE_MARGIN);
+    }
+
+    // Box2D forgets a switched-off body's contacts and leaves it out of the step, so nothing can push it
+    private void freeze(int slot) {
+        frozen[slot] = true;
+        ai.state[slot] = EnemyDecisions.PATROL; // Out of the loaded area, too far to keep chasing
+        ai.velocityX[slot] = ai.velocityY[slot] = 0;
+        nextThink[slot] = tick + FROZEN_PERIOD;
+        Body body = bodies[slot];
+        body.setLinearVelocity(0, 0);
+        body.setActive(false);
+    }
+
+    private void writeBodies() {
+        for (int i = 0; i < ai.batchCount; i++) {
+            int slot = ai.batch[i];
+            if (ai.changed[slot]) bodies[slot].setLinearVelocity(ai.velocityX[slot], ai.velocityY[slot]);
+        }
+    }
+
+    /**
+     * Adds every active enemy's sprite to a render snapshot, between its last two physics states.
+     */
+    public void addSprites(RenderSnapshot out) {
+        float halfWidth = SPRITE_WIDTH / 2, halfHeight = SPRITE_HEIGHT / 2;
+        for (int i = 0; i < activeCount; i++) {
+            int slot = active[i];
+            out.addSprite(region, previousX[slot] - halfWidth, previousY[slot] - halfHeight,
+                          ai.x[slot] - halfWidth, ai.y[slot] - halfHeight, SPRITE_WIDTH, SPRITE_HEIGHT, 1f);
+        }
+    }
+
+    /**
+     * Gives the enemy texture back to {@link GameAssets}. Bodies go with their world.
+     */
+    public void dispose() {
+        if (!disposed) {
+            disposed = true;
+            GameAssets.releaseRegion(TEXTURE);
+        }
+    }
+}
@@ -7,8 +7,6 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.audio.Music;
@@ -17,9 +15,18 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 
 /** First screen of the application. Displayed after the application is created. */
 public class FirstScreen implements Screen {
+    private static final float TEXT_SCALE = 1.8f;
+    private static final float SELECTED_SCALE = 2.2f;
+    private static final float TITLE_SCALE = 4.0f;
+    private static final Color TITLE_COLOR = new Color(1.0f, 0.8f, 0.2f, 1.0f); // Золотистый
+    private static final Color TITLE_SHADOW_COLOR = new Color(0.2f, 0.1f, 0.0f, 0.8f); // Темная тень
+    private static final Color TEXT_SHADOW_COLOR = new Color(0, 0, 0, 0.6f);
+
     private NikitaGame game;
     private SpriteBatch batch;
-    private BitmapFont font, titleFont, fontSelected, titleFontShadow, fontShadow;
+    // Один шрифт на все надписи: масштаб и цвет задаются перед каждой отрисовкой
+    private BitmapFont font;
+    private float fontScale; // Масштаб текста по разрешению экрана при создании меню
     private int selected = 0;
     private String[] menu = {"New Game", "Continue", "Exit"};
     private boolean canContinue = false;
@@ -47,37 +54,12 @@ public class FirstScreen implements Screen {
         // Вычисляем масштаб на основе разрешения экрана
         float screenScale = Math.min(Gdx.graphics.getWidth() / 1280f, Gdx.graphics.getHeight() / 720f);
 
+        fontScale = screenScale;
         font = new BitmapFont();
         font.getRegion().getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-        font.getData().setScale(1.8f * screenScale);
-        font.setColor(Color.WHITE);
-
-        fontSelected = new BitmapFont();
-        fontSelected.getRegion().getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-        fontSelected.getData().setScale(2.2f * screenScale);
-        fontSelected.setColor(Color.GOLD);
-
-        titleFont = new BitmapFont();
-        titleFont.getRegion().getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-        titleFont.getData().setScale(4.0f * screenScale);
-        titleFont.setColor(new Color(1.0f, 0.8f, 0.2f, 1.0f)); // Золотистый
-
-        titleFontShadow = new BitmapFont();
-        titleFontShadow.getRegion().getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-        titleFontShadow.getData().setScale(4.0f * screenScale);
-        titleFontShadow.setColor(new Color(0.2f, 0.1f, 0.0f, 0.8f)); // Темная тень
-
-        fontShadow = new BitmapFont();
-        fontShadow.getRegion().getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-        fontShadow.getData().setScale(1.8f * screenScale);
-        fontShadow.setColor(new Color(0, 0, 0, 0.6f));
-        // Проверка наличия сохранения
-        Preferences prefs = Gdx.app.getPreferences("save");
-        canContinue = prefs.contains("level");
-        // Музыка
+        // Музыка (запускается в show, экран меню переиспользуется)
         music = Gdx.audio.newMusic(Gdx.files.internal("prologue_theme.mp3"));
         music.setLooping(true);
-        music.play();
         for (int i = 0; i < animScale.length; i++) animScale[i] = 1f;
 
         // Инициализируем правильные размеры
@@ -86,7 +68,12 @@ public class FirstScreen implements Screen {
 
     @Override
     public void show() {
-        // Prepare your screen here.
+        // Меню переиспользуется, поэтому состояние обновляется при каждом показе
+        Preferences prefs = Gdx.app.getPreferences("save");
+        canContinue = prefs.contains("level");
+        if (selected == 1 && !canContinue) selected = 0;
+        showExitConfirm = false;
+        if (music != null) music.play();
     }
 
     @Override
@@ -118,14 +105,17 @@ public class FirstScreen implements Screen {
         batch.draw(bg, drawX, drawY, drawW, drawH);
         // Красивый заголовок с тенью
         String title = "NIKITA GAME";
-        layout.setText(titleFont, title);
+        font.getData().setScale(TITLE_SCALE * fontScale);
+        layout.setText(font, title);
         float titleX = (winW - layout.width) / 2f;
         float titleY = winH - 120;
 
         // Рисуем тень заголовка
-        titleFontShadow.draw(batch, title, titleX + 4, titleY - 4);
+        font.setColor(TITLE_SHADOW_COLOR);
+        font.draw(batch, title, titleX + 4, titleY - 4);
         // Рисуем основной заголовок
-        titleFont.draw(batch, title, titleX, titleY);
+        font.setColor(TITLE_COLOR);
+        font.draw(batch, title, titleX, titleY);
 
         // Обновляем анимацию масштаба
         for (int i = 0; i < menu.length; i++) {
@@ -208,24 +198,23 @@ public class FirstScreen implements Screen {
             boolean disabled = (i == 1 && !canContinue);
 
             // Вычисляем центрированную позицию текста
-            BitmapFont currentFont = (i == selected && !disabled) ? fontSelected : font;
-            float textScale = (i == selected && !disabled) ? 2.2f : 1.8f;
-            currentFont.getData().setScale(textScale * screenScale * animScale[i]);
+            float textScale = (i == selected && !disabled) ? SELECTED_SCALE : TEXT_SCALE;
+            font.getData().setScale(textScale * screenScale * animScale[i]);
 
-            layout.setText(currentFont, text);
+            layout.setText(font, text);
             float textX = menuX[i] - layout.width / 2f;
             float textY = menuY[i];
 
             // Тень текста
-            fontShadow.getData().setScale(textScale * screenScale * animScale[i]);
-            fontShadow.draw(batch, text, textX + 2, textY - 2);
+            font.setColor(TEXT_SHADOW_COLOR);
+            font.draw(batch, text, textX + 2, textY - 2);
 
             // Основной текст
             if (i == selected && !disabled) {
-                if (i == 0) fontSelected.setColor(1.0f, 0.9f, 0.3f, 1.0f); // Яркое золото
-                else if (i == 1) fontSelected.setColor(0.6f, 0.9f, 1.0f, 1.0f); // Яркий голубой
-                else fontSelected.setColor(1.0f, 0.6f, 0.6f, 1.0f); // Яркий красный
-                fontSelected.draw(batch, text, textX, textY);
+                if (i == 0) font.setColor(1.0f, 0.9f, 0.3f, 1.0f); // Яркое золото
+                else if (i == 1) font.setColor(0.6f, 0.9f, 1.0f, 1.0f); // Яркий голубой
+                else font.setColor(1.0f, 0.6f, 0.6f, 1.0f); // Яркий красный
+                font.draw(batch, text, textX, textY);
             } else {
                 font.setColor(disabled ? Color.DARK_GRAY : Color.WHITE);
                 font.draw(batch, text, textX, textY);
@@ -238,26 +227,27 @@ public class FirstScreen implements Screen {
             renderExitDialog(winW, winH);
         }
 
+        InputActions actions = InputQueue.frame();
         if (showExitConfirm) {
-            if (Gdx.input.isKeyJustPressed(Input.Keys.LEFT) || Gdx.input.isKeyJustPressed(Input.Keys.RIGHT)) exitSelected = 1-exitSelected;
-            if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER) || Gdx.input.isKeyJustPressed(Input.Keys.SPACE) || (Gdx.input.justTouched() && handleExitMouse(winW, winH))) {
+            if (actions.isPressed(InputActions.LEFT | InputActions.RIGHT)) exitSelected = 1-exitSelected;
+            if (actions.isPressed(InputActions.CONFIRM) || (actions.isPressed(InputActions.CLICK) && handleExitMouse(winW, winH, actions))) {
                 if (exitSelected == 0) Gdx.app.exit();
                 else showExitConfirm = false;
             }
-            if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) showExitConfirm = false;
+            if (actions.isPressed(InputActions.BACK)) showExitConfirm = false;
             return;
         }
         // Навигация клавиатурой
-        if (Gdx.input.isKeyJustPressed(Input.Keys.UP)) {
+        if (actions.isPressed(InputActions.UP)) {
             do { selected = (selected + menu.length - 1) % menu.length; } while (selected == 1 && !canContinue);
         }
-        if (Gdx.input.isKeyJustPressed(Input.Keys.DOWN)) {
+        if (actions.isPressed(InputActions.DOWN)) {
             do { selected = (selected + 1) % menu.length; } while (selected == 1 && !canContinue);
         }
         // Упрощенная навигация без мыши
         // Клик мышью или Enter/Пробел
-        boolean mouseClicked = Gdx.input.justTouched();
-        boolean keyClicked = Gdx.input.isKeyJustPressed(Input.Keys.ENTER) || Gdx.input.isKeyJustPressed(Input.Keys.SPACE);
+        boolean mouseClicked = actions.isPressed(InputActions.CLICK);
+        boolean keyClicked = actions.isPressed(InputActions.CONFIRM);
         if ((mouseClicked || keyClicked)) {
             if (selected == 0) {
                 Preferences prefs = Gdx.app.getPreferences("save");
@@ -268,7 +258,7 @@ public class FirstScreen implements Screen {
             if (selected == 1 && canContinue) {
                 Preferences prefs = Gdx.app.getPreferences("save");
                 String level = prefs.getString("level", "Level1.tmx");
-                game.setScreen(new GameScreen(game, level));
+                game.setScreen(new LoadingScreen(game, level));
             }
             if (selected == 2) {
                 showExitConfirm = true;
@@ -308,17 +298,14 @@ public class FirstScreen implements Screen {
         shapeRenderer.dispose();
         bg.dispose();
         font.dispose();
-        fontSelected.dispose();
-        fontShadow.dispose();
-        titleFont.dispose();
-        titleFontShadow.dispose();
         if (music != null) music.dispose();
     }
 
     // Рендеринг диалога выхода
     private void renderExitDialog(int winW, int winH) {
         String msg = "Exit game?";
-        layout.setText(titleFont, msg);
+        font.getData().setScale(TITLE_SCALE * fontScale);
+        layout.setText(font, msg);
         float boxW = layout.width + 80;
         float boxH = 180;
         float boxX = (winW - boxW)/2f;
@@ -343,51 +330,51 @@ public class FirstScreen implements Screen {
 
         // Текст диалога
         batch.begin();
-        titleFont.setColor(Color.WHITE);
-        titleFont.draw(batch, msg, boxX + (boxW - layout.width)/2f, boxY + boxH - 40);
+        font.setColor(Color.WHITE);
+        font.draw(batch, msg, boxX + (boxW - layout.width)/2f, boxY + boxH - 40);
 
         // Кнопки
         String yes = "Yes";
         String no = "No";
-        exitLayout.setText(fontSelected, yes);
+        float selectedScale = SELECTED_SCALE * fontScale * animScale[selected];
+        float textScale = TEXT_SCALE * fontScale;
+        font.getData().setScale(selectedScale);
+        exitLayout.setText(font, yes);
         float yesX = boxX + 60;
         float btnY = boxY + 60;
-        exitLayout.setText(fontSelected, no);
+        exitLayout.setText(font, no);
         float noX = boxX + boxW - 60 - exitLayout.width;
 
         // Выделение выбранной кнопки
-        if (exitSelected == 0) {
-            fontSelected.setColor(Color.GOLD);
-            fontSelected.draw(batch, yes, yesX, btnY);
-            font.setColor(Color.LIGHT_GRAY);
-            font.draw(batch, no, noX, btnY);
-        } else {
-            font.setColor(Color.LIGHT_GRAY);
-            font.draw(batch, yes, yesX, btnY);
-            fontSelected.setColor(Color.GOLD);
-            fontSelected.draw(batch, no, noX, btnY);
-        }
+        font.getData().setScale(exitSelected == 0 ? selectedScale : textScale);
+        font.setColor(exitSelected == 0 ? Color.GOLD : Color.LIGHT_GRAY);
+        font.draw(batch, yes, yesX, btnY);
+        font.getData().setScale(exitSelected == 1 ? selectedScale : textScale);
+        font.setColor(exitSelected == 1 ? Color.GOLD : Color.LIGHT_GRAY);
+        font.draw(batch, no, noX, btnY);
         batch.end();
     }
 
     // Обработка клика мышью по кнопкам диалога выхода
-    private boolean handleExitMouse(int winW, int winH) {
+    private boolean handleExitMouse(int winW, int winH, InputActions actions) {
         float menuStartY = winH/2f + 20;
         String msg = "Выйти из игры?";
-        layout.setText(titleFont, msg);
+        font.getData().setScale(TITLE_SCALE * fontScale);
+        layout.setText(font, msg);
         float boxW = layout.width + 80;
         float boxH = 180;
         float boxX = (winW - boxW)/2f;
         float boxY = (winH - boxH)/2f;
         String yes = "Да";
         String no = "Нет";
-        exitLayout.setText(fontSelected, yes);
+        font.getData().setScale(SELECTED_SCALE * fontScale * animScale[selected]);
+        exitLayout.setText(font, yes);
         float yesX = boxX + 60;
         float btnY = boxY + 60;
-        exitLayout.setText(fontSelected, no);
+        exitLayout.setText(font, no);
         float noX = boxX + boxW - 60 - exitLayout.width;
-        int mouseX = Gdx.input.getX();
-        int mouseY = winH - Gdx.input.getY();
+        int mouseX = actions.getClickX();
+        int mouseY = winH - actions.getClickY();
         if (mouseY >= btnY - exitLayout.height && mouseY <= btnY && mouseX >= yesX && mouseX <= yesX + exitLayout.width) { exitSelected = 0; return true; }
         if (mouseY >= btnY - exitLayout.height && mouseY <= btnY && mouseX >= noX && mouseX <= noX + exitLayout.width) { exitSelected = 1; return true; }
         return false;
@@ -0,0 +1,63 @@
+package com.nikita.game;
+
+/**
+ * Fixed-timestep accumulator shared by the gameplay screens.
+ * Frame time is accumulated and consumed in steps of exactly {@link #STEP} seconds, so physics and
+ * gameplay timers advance the same way at any refresh rate and a long frame never turns into one
+ * huge, tunnelling {@code world.step}. After a spike at most {@link #MAX_STEPS} steps run in one frame
+ * and the rest of the backlog is dropped, so a slow machine slows the game down instead of spiralling.
+ * <p>
+ * {@link #getAlpha} is how far the frame lies between the last two simulated states; renderers
+ * draw bodies at {@code previous + (current - previous) * alpha}.
+ */
+public final class FixedStepper {
+    /** Simulation step in seconds, 60 Hz. */
+    public static final float STEP = 1f / 60f;
+    /** Steps that may run in one frame before the remaining backlog is discarded. */
+    public static final int MAX_STEPS = 5;
+
+    private final float step;
+    private final int maxSteps;
+    private float accumulator;
+
+    public FixedStepper() {
+        this(STEP, MAX_STEPS);
+    }
+
+    public FixedStepper(float step, int maxSteps) {
+        this.step = step;
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Adds a frame's time and returns how many steps to simulate for it, possibly none.
+     */
+    public int advance(float delta) {
+        accumulator += Math.max(0f, delta);
+        int steps = (int) (accumulator / step);
+        if (steps > maxSteps) {
+            steps = maxSteps;
+            accumulator = step * maxSteps; // Drop the backlog beyond the catch-up limit
+        }
+        accumulator -= steps * step;
+        return steps;
+    }
+
+    /**
+     * Share of a step left over after the last {@link #advance} (0..1), for render interpolation.
+     */
+    public float getAlpha() {
+        return Math.min(1f, accumulator / step);
+    }
+
+    public float getStep() {
+        return step;
+    }
+
+    /**
+     * Forgets accumulated time, e.g. after a pause or a loading hitch.
+     */
+    public void reset() {
+        accumulator = 0f;
+    }
+}
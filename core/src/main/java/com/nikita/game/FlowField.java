@@ -0,0 +1,195 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra map over the tile grid towards a single target, shared by every chasing enemy.
+ * A breadth-first search from the target tile runs only when the target changes tile;
+ * each reachable cell then stores the direction to its best neighbour, so steering an
+ * enemy is one array read however many enemies there are.
+ * Diagonal steps are only taken when both adjacent orthogonal cells are free, so enemies
+ * do not cut wall corners.
+ * <p>
+ * The grid is in agent cells: an agent is in the cell of its lowest tile, the one its feet stand in,
+ * and {@link #blockedCells} blocks every cell where a body of the agent's size would overlap a wall.
+ * {@link #update} and {@link #getDirection} take body centres and look them up in that cell.
+ */
+public final class FlowField {
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    private static final int NO_DIRECTION = -1;
+    // Eight neighbours; the first four are orthogonal
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final float DIAGONAL = (float) (1 / Math.sqrt(2));
+
+    private final boolean[] blocked;
+    private final int width, height;
+    private final int maxDistance;
+    /** From an agent's centre down to the middle of its lowest tile. */
+    private final float footOffset;
+    private final int[] distance;
+    private final byte[] direction;
+    private final int[] queue;
+    private int reached; // Cells reached by the last search, the first entries of queue
+    private int targetX = -1, targetY = -1;
+
+    /**
+     * @param blocked     impassable cells, indexed {@code x + y * width}
+     * @param agentHeight height of the bodies whose centres are passed in, in tiles
+     * @param maxDistance cells further than this many steps from the target get no direction,
+     *                    which bounds the cost of a search on large maps
+     */
+    public FlowField(boolean[] blocked, int width, int height, float agentHeight, int maxDistance) {
+        this.blocked = blocked;
+        this.width = width;
+        this.height = height;
+        this.maxDistance = maxDistance;
+        footOffset = Math.max(0f, agentHeight / 2f - 0.5f);
+        distance = new int[width * height];
+        direction = new byte[width * height];
+        queue = new int[width * height];
+        Arrays.fill(distance, UNREACHED);
+        Arrays.fill(direction, (byte) NO_DIRECTION);
+    }
+
+    /**
+     * Builds the blocked grid from collision rectangles for agents of the given size; only
+     * {@link TileFlags#COLLIDES} blocks movement. Wall shapes are {@link ChunkStreamer#WALL_INSET} smaller
+     * than their tiles on each side, so a gap of n free tiles is n + 2 * inset wide: a 0.8 x 1.8 body
+     * fits through one free column, but needs two free rows above the cell it stands in.
+     * @param rects rectangles in the {@link CollisionRects#build} layout
+     */
+    public static boolean[] blockedCells(int[] rects, int width, int height, float agentWidth, float agentHeight) {
+        int clearanceX = clearance(agentWidth), clearanceY = clearance(agentHeight);
+        boolean[] blocked = new boolean[width * height];
+        for (int i = 0; i < rects.length; i += CollisionRects.STRIDE) {
+            if (rects[i + 4] != TileFlags.COLLIDES) continue;
+            // Grow the wall by the cells from which the agent's body would reach into it:
+            // sideways around the cell, and downwards, as the body extends up from its lowest tile
+            int left = Math.max(0, rects[i] - clearanceX / 2);
+            int right = Math.min(width, rects[i] + rects[i + 2] + (clearanceX - 1) / 2);
+            int bottom = Math.max(0, rects[i + 1] - (clearanceY - 1));
+            int top = Math.min(height, rects[i + 1] + rects[i + 3]);
+            for (int y = bottom; y < top; y++) {
+                for (int x = left; x < right; x++) {
+                    blocked[x + y * width] = true;
+                }
+            }
+        }
+        return blocked;
+    }
+
+    // Free tiles in a row an agent of this size needs between two walls
+    private static int clearance(float size) {
+        return Math.max(1, (int) Math.ceil(size - 2 * ChunkStreamer.WALL_INSET - 1e-4f));
+    }
+
+    /**
+     * Moves the target, the centre of an agent-sized body; searches again only when it lands in another cell.
+     * @return true if the field was rebuilt
+     */
+    public boolean update(float worldX, float worldY) {
+        int x = clamp((int) Math.floor(worldX), width);
+        int y = clamp((int) Math.floor(worldY - footOffset), height);
+        if (x == targetX && y == targetY) return false;
+        targetX = x;
+        targetY = y;
+        search();
+        return true;
+    }
+
+    /**
+     * Writes the unit steering direction for an agent's centre into {@code out}.
+     * @return false when the position is unreachable, out of range, or already on the target tile
+     */
+    public boolean getDirection(float worldX, float worldY, Vector2 out) {
+        int d = getDirectionIndex(worldX, worldY);
+        if (d < 0) return false;
+        out.set(directionX(d), directionY(d));
+        return true;
+    }
+
+    /**
+     * Like {@link #getDirection}, but returns the direction as an index for {@link #directionX} and
+     * {@link #directionY}, so concurrent readers need no vector of their own.
+     * @return -1 when the position is unreachable, out of range, or already on the target tile
+     */
+    public int getDirectionIndex(float worldX, float worldY) {
+        int x = (int) Math.floor(worldX), y = (int) Math.floor(worldY - footOffset);
+        if (x < 0 || y < 0 || x >= width || y >= height) return NO_DIRECTION;
+        return direction[x + y * width];
+    }
+
+    /** X of the unit vector of a direction index. */
+    public static float directionX(int d) {
+        return d < 4 ? DX[d] : DX[d] * DIAGONAL;
+    }
+
+    /** Y of the unit vector of a direction index. */
+    public static float directionY(int d) {
+        return d < 4 ? DY[d] : DY[d] * DIAGONAL;
+    }
+
+    /**
+     * Steps from a tile to the target, or -1 if unreachable.
+     */
+    public int getDistance(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return -1;
+        int d = distance[x + y * width];
+        return d == UNREACHED ? -1 : d;
+    }
+
+    private void search() {
+        // Only the cells of the previous search need resetting, so a bounded search stays bounded
+        for (int i = 0; i < reached; i++) {
+            distance[queue[i]] = UNREACHED;
+            direction[queue[i]] = NO_DIRECTION;
+        }
+        int head = 0, tail = 0;
+        int start = targetX + targetY * width;
+        distance[start] = 0;
+        queue[tail++] = start;
+
+        // Uniform step cost, so a plain BFS over the orthogonal neighbours gives exact distances
+        while (head < tail) {
+            int cell = queue[head++];
+            int next = distance[cell] + 1;
+            if (next > maxDistance) continue;
+            int x = cell % width, y = cell / width;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DX[d], ny = y + DY[d];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                int neighbour = nx + ny * width;
+                if (blocked[neighbour] || distance[neighbour] != UNREACHED) continue;
+                distance[neighbour] = next;
+                queue[tail++] = neighbour;
+            }
+        }
+
+        // Point every reached cell at its closest neighbour
+        for (int i = 0; i < tail; i++) {
+            int cell = queue[i];
+            if (cell == start) continue;
+            int x = cell % width, y = cell / width;
+            int best = NO_DIRECTION, bestDistance = distance[cell];
+            for (int d = 0; d < 8; d++) {
+                int nx = x + DX[d], ny = y + DY[d];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                if (d >= 4 && (blocked[nx + y * width] || blocked[x + ny * width])) continue;
+                int neighbourDistance = distance[nx + ny * width];
+                if (neighbourDistance < bestDistance) {
+                    best = d;
+                    bestDistance = neighbourDistance;
+                }
+            }
+            direction[cell] = (byte) best;
+        }
+        reached = tail;
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+}
@@ -0,0 +1,259 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeBitmapFontData;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.Arrays;
+
+/**
+ * Process-wide cache of FreeType fonts.
+ * Each (ttf, size, characters, color, border) combination is rasterized once and shared;
+ * callers must not dispose the returned fonts and should set the tint before drawing.
+ * The baked glyphs are also written as a BMFont {@code .fnt} file with PNG pages to a
+ * cache directory, so later launches load the bitmap font without running FreeType.
+ */
+public final class FontManager {
+    /** Default FreeType characters plus the Russian alphabet used by the dialogues. */
+    public static final String RUSSIAN_CHARS = FreeTypeFontGenerator.DEFAULT_CHARS
+        + "АБВГДЕЁЖЗИЙКЛМНОПРСТУФХЦЧШЩЪЫЬЭЮЯабвгдеёжзийклмнопрстуфхцчшщъыьэюя";
+
+    /** Bump when the cache file layout changes so old files are regenerated. */
+    private static final int CACHE_VERSION = 1;
+    private static final String CACHE_DIR = ".nikita-escape/cache/fonts/";
+
+    private static final ObjectMap<String, BitmapFont> fonts = new ObjectMap<>();
+    /** Content hash per ttf path, read once per run; part of the cache key, so an edited ttf is regenerated. */
+    private static final ObjectMap<String, String> ttfHashes = new ObjectMap<>();
+
+    private FontManager() {
+    }
+
+    /**
+     * Returns the shared font for the given ttf, pixel size, characters and glyph color.
+     */
+    public static BitmapFont get(String ttf, int size, String characters, Color color) {
+        return get(ttf, size, characters, color, 0f, Color.BLACK);
+    }
+
+    /**
+     * Returns the shared font for the given ttf, pixel size, characters, glyph color and border.
+     * Generated on first use, from the disk cache when possible.
+     */
+    public static synchronized BitmapFont get(String ttf, int size, String characters, Color color,
+                                              float borderWidth, Color borderColor) {
+        String chars = normalize(characters);
+        FileHandle ttfFile = Gdx.files.internal(ttf);
+        String key = ttf + "|" + ttfHash(ttf, ttfFile) + "|" + size + "|" + chars + "|" + color
+            + "|" + borderWidth + "|" + (borderWidth > 0 ? borderColor.toString() : "");
+        BitmapFont font = fonts.get(key);
+        if (font == null) {
+            String baseName = ttfFile.nameWithoutExtension() + "-" + size + "-" + Long.toHexString(hash(CACHE_VERSION + "|" + key));
+            font = loadCached(baseName);
+            if (font == null) {
+                FreeTypeFontParameter parameter = new FreeTypeFontParameter();
+                parameter.size = size;
+                parameter.characters = chars;
+                parameter.color = color;
+                parameter.borderWidth = borderWidth;
+                parameter.borderColor = borderColor;
+                font = generate(ttfFile, parameter, baseName);
+            }
+            fonts.put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * Returns the number of distinct fonts currently held.
+     */
+    public static synchronized int getFontCount() {
+        return fonts.size;
+    }
+
+    private static BitmapFont loadCached(String baseName) {
+        FileHandle fntFile = cacheDir().child(baseName + ".fnt");
+        if (!fntFile.exists()) {
+            return null;
+        }
+        try {
+            return new BitmapFont(fntFile);
+        } catch (GdxRuntimeException e) {
+            System.err.println("FontManager: broken cache entry " + fntFile.path() + ", regenerating: " + e.getMessage());
+            fntFile.delete();
+            return null;
+        }
+    }
+
+    private static BitmapFont generate(FileHandle ttfFile, FreeTypeFontParameter parameter, String baseName) {
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(ttfFile);
+        try {
+            // Our own packer keeps the glyph pages as pixmaps so they can be written out before upload
+            int glyphHeight = MathUtils.ceil(parameter.size * 1.5f + parameter.borderWidth * 2);
+            int pageSize = Math.min(1024, MathUtils.nextPowerOfTwo(
+                (int) Math.ceil(Math.sqrt(glyphHeight * glyphHeight * parameter.characters.length()))));
+            PixmapPacker packer = new PixmapPacker(pageSize, pageSize, Pixmap.Format.RGBA8888, 1, false,
+                new PixmapPacker.SkylineStrategy());
+            packer.setTransparentColor(parameter.borderWidth > 0 ? parameter.borderColor : parameter.color);
+            packer.getTransparentColor().a = 0;
+            parameter.packer = packer;
+
+            FreeTypeBitmapFontData data = generator.generateData(parameter);
+            try {
+                FileHandle fntFile = writeCache(data, packer, baseName, parameter.size);
+                BitmapFont font = new BitmapFont(fntFile);
+                packer.dispose();
+                return font;
+            } catch (GdxRuntimeException e) {
+                // Cache directory not writable: keep the font in memory only
+                System.err.println("FontManager: could not cache " + baseName + ": " + e.getMessage());
+                data.regions = new Array<>();
+                packer.updateTextureRegions(data.regions, parameter.minFilter, parameter.magFilter, parameter.genMipMaps);
+                BitmapFont font = new BitmapFont(data, data.regions, true);
+                font.setOwnsTexture(true);
+                return font;
+            }
+        } finally {
+            generator.dispose();
+        }
+    }
+
+    /**
+     * Writes the glyph pages and a text BMFont description; the .fnt is written last,
+     * so its presence marks a complete entry.
+     */
+    private static FileHandle writeCache(FreeTypeBitmapFontData data, PixmapPacker packer, String baseName, int size) {
+        FileHandle dir = cacheDir();
+        Array<PixmapPacker.Page> pages = packer.getPages();
+        StringBuilder fnt = new StringBuilder();
+        fnt.append("info face=\"").append(baseName).append("\" size=").append(size)
+            .append(" bold=0 italic=0 charset=\"\" unicode=1 stretchH=100 smooth=1 aa=1 padding=")
+            .append((int) data.padTop).append(',').append((int) data.padRight).append(',')
+            .append((int) data.padBottom).append(',').append((int) data.padLeft).append(" spacing=1,1\n");
+        Pixmap firstPage = pages.first().getPixmap();
+        fnt.append("common lineHeight=").append((int) data.lineHeight)
+            .append(" base=").append((int) (data.capHeight + data.ascent))
+            .append(" scaleW=").append(firstPage.getWidth()).append(" scaleH=").append(firstPage.getHeight())
+            .append(" pages=").append(pages.size).append(" packed=0\n");
+        for (int i = 0; i < pages.size; i++) {
+            String pageName = baseName + "_" + i + ".png";
+            PixmapIO.writePNG(dir.child(pageName), pages.get(i).getPixmap());
+            fnt.append("page id=").append(i).append(" file=\"").append(pageName).append("\"\n");
+        }
+
+        Array<Glyph> glyphs = new Array<>();
+        for (Glyph[] page : data.glyphs) {
+            if (page == null) continue;
+            for (Glyph glyph : page) {
+                if (glyph != null) glyphs.add(glyph);
+            }
+        }
+        if (data.missingGlyph != null && !glyphs.contains(data.missingGlyph, true)) {
+            glyphs.add(data.missingGlyph);
+        }
+        fnt.append("chars count=").append(glyphs.size).append('\n');
+        for (Glyph glyph : glyphs) {
+            int id = glyph == data.missingGlyph ? 0 : glyph.id;
+            fnt.append("char id=").append(id)
+                .append(" x=").append(glyph.srcX).append(" y=").append(glyph.srcY)
+                .append(" width=").append(glyph.width).append(" height=").append(glyph.height)
+                .append(" xoffset=").append(glyph.xoffset)
+                // BitmapFontData reads yoffset from the top of the line and converts it back
+                .append(" yoffset=").append(-(glyph.yoffset + glyph.height))
+                .append(" xadvance=").append(glyph.xadvance)
+                .append(" page=").append(glyph.page).append(" chnl=15\n");
+        }
+
+        StringBuilder kernings = new StringBuilder();
+        int kerningCount = 0;
+        for (Glyph first : glyphs) {
+            for (Glyph second : glyphs) {
+                int amount = first.getKerning((char) second.id);
+                if (amount != 0) {
+                    kernings.append("kerning first=").append(first.id).append(" second=").append(second.id)
+                        .append(" amount=").append(amount).append('\n');
+                    kerningCount++;
+                }
+            }
+        }
+        fnt.append("kernings count=").append(kerningCount).append('\n').append(kernings);
+
+        // Exact FreeType metrics, so the cached font lays out text exactly like the generated one
+        fnt.append("metrics ascent=").append(data.ascent).append(" descent=").append(data.descent)
+            .append(" down=").append(data.down).append(" capHeight=").append(data.capHeight)
+            .append(" lineHeight=").append(data.lineHeight).append(" spaceXAdvance=").append(data.spaceXadvance)
+            .append(" xHeight=").append(data.xHeight).append('\n');
+
+        FileHandle fntFile = dir.child(baseName + ".fnt");
+        fntFile.writeString(fnt.toString(), false, "UTF-8");
+        System.out.println("FontManager: cached " + fntFile.path());
+        return fntFile;
+    }
+
+    private static FileHandle cacheDir() {
+        return Gdx.files.isExternalStorageAvailable() ? Gdx.files.external(CACHE_DIR) : Gdx.files.local(CACHE_DIR);
+    }
+
+    /** Sorted, de-duplicated characters, so the same set in a different order shares a font. */
+    private static String normalize(String characters) {
+        char[] chars = characters.toCharArray();
+        Arrays.sort(chars);
+        StringBuilder result = new StringBuilder(chars.length);
+        for (int i = 0; i < chars.length; i++) {
+            if (i == 0 || chars[i] != chars[i - 1]) result.append(chars[i]);
+        }
+        return result.toString();
+    }
+
+    private static String ttfHash(String ttf, FileHandle ttfFile) {
+        String hash = ttfHashes.get(ttf);
+        if (hash == null) {
+            hash = Long.toHexString(hash(ttfFile.readBytes()));
+            ttfHashes.put(ttf, hash);
+        }
+        return hash;
+    }
+
+    /** 64-bit FNV-1a of the cache key; wider than String.hashCode so cache file names do not collide. */
+    private static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /** 64-bit FNV-1a of a file's bytes. */
+    private static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Disposes every shared font. Called once when the application shuts down.
+     */
+    public static synchronized void dispose() {
+        for (BitmapFont font : fonts.values()) {
+            font.dispose();
+        }
+        fonts.clear();
+        ttfHashes.clear();
+    }
+}
@@ -0,0 +1,235 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Process-wide registry for shared GPU assets.
+ * Every path is decoded and uploaded once through an {@link AssetManager};
+ * each acquire adds a reference and each release removes one, and the asset
+ * is unloaded when its last user releases it.
+ * Sprites packed by the {@code packTextures} Gradle task are served as regions of
+ * one shared atlas, so drawing different entities does not switch textures.
+ * Assets can also be preloaded asynchronously (see {@link LoadingScreen}); a preload
+ * holds its own reference until it is released, so acquiring afterwards is instant.
+ */
+public final class GameAssets {
+    /** Atlas generated by the packTextures task from the entity and object sprites. */
+    public static final String ENTITY_ATLAS = "atlas/entities.atlas";
+
+    private static AssetManager manager;
+    private static final ObjectIntMap<String> references = new ObjectIntMap<>();
+    private static ObjectSet<String> atlasRegions;
+
+    private GameAssets() {
+    }
+
+    /**
+     * Returns the shared asset manager, creating it on first use.
+     */
+    public static synchronized AssetManager getManager() {
+        if (manager == null) {
+            manager = new AssetManager();
+            // Tilesets referenced by the map are loaded as its dependencies
+            manager.setLoader(TiledMap.class, new TmxMapLoader(new InternalFileHandleResolver()));
+        }
+        return manager;
+    }
+
+    /**
+     * Returns the shared texture for the given path and adds a reference to it.
+     */
+    public static Texture acquireTexture(String path) {
+        return acquire(path, Texture.class);
+    }
+
+    /**
+     * Returns the region for a sprite path such as {@code "enemy.png"} and adds a reference to it.
+     * The region comes from the entity atlas when the sprite was packed,
+     * otherwise it covers the whole standalone texture.
+     */
+    public static synchronized TextureRegion acquireRegion(String path) {
+        String name = regionName(path);
+        if (isPacked(name)) {
+            TextureAtlas atlas = acquire(ENTITY_ATLAS, TextureAtlas.class);
+            return atlas.findRegion(name);
+        }
+        return new TextureRegion(acquire(path, Texture.class));
+    }
+
+    /**
+     * Releases a region obtained from {@link #acquireRegion(String)}.
+     */
+    public static synchronized void releaseRegion(String path) {
+        release(isPacked(regionName(path)) ? ENTITY_ATLAS : path);
+    }
+
+    /**
+     * Queues an asynchronous load of the asset and holds a preload reference to it.
+     * The load progresses through {@link #update(int)}; the reference is dropped with
+     * {@link #releasePreload(String)}, normally once the real users have acquired the asset.
+     */
+    public static synchronized <T> void preload(String path, Class<T> type, AssetLoaderParameters<T> parameters) {
+        if (!Gdx.files.internal(path).exists()) {
+            throw new GdxRuntimeException("Asset not found: " + path);
+        }
+        getManager().load(path, type, parameters);
+    }
+
+    /**
+     * Preloads whatever {@link #acquireRegion(String)} will need for the sprite path.
+     */
+    public static synchronized void preloadRegion(String path) {
+        if (isPacked(regionName(path))) {
+            preload(ENTITY_ATLAS, TextureAtlas.class, null);
+        } else {
+            preload(path, Texture.class, null);
+        }
+    }
+
+    /**
+     * Drops a reference taken by {@link #preload}. The asset stays resident while acquired.
+     */
+    public static synchronized void releasePreload(String path) {
+        if (manager != null && manager.contains(path)) {
+            manager.unload(path);
+        }
+    }
+
+    /**
+     * Drops a reference taken by {@link #preloadRegion(String)}.
+     */
+    public static synchronized void releasePreloadRegion(String path) {
+        releasePreload(isPacked(regionName(path)) ? ENTITY_ATLAS : path);
+    }
+
+    /**
+     * Advances queued loads for at most the given number of milliseconds.
+     * @return true when nothing is left in the queue
+     */
+    public static synchronized boolean update(int millis) {
+        return getManager().update(millis);
+    }
+
+    /**
+     * Returns the progress of the queued loads between 0 and 1.
+     */
+    public static synchronized float getProgress() {
+        return getManager().getProgress();
+    }
+
+    /**
+     * Returns the shared asset for the given path and adds a reference to it.
+     * The asset is loaded synchronously only if nobody holds it yet.
+     */
+    public static synchronized <T> T acquire(String path, Class<T> type) {
+        AssetManager assets = getManager();
+        int count = references.get(path, 0);
+        if (count == 0) {
+            if (assets.isLoaded(path, type)) {
+                // Already resident (e.g. preloaded), just add our reference
+                addManagerReference(assets, path);
+            } else {
+                if (!Gdx.files.internal(path).exists()) {
+                    throw new GdxRuntimeException("Asset not found: " + path);
+                }
+                assets.load(path, type);
+                assets.finishLoadingAsset(path);
+            }
+        }
+        references.put(path, count + 1);
+        return assets.get(path, type);
+    }
+
+    /**
+     * Removes one reference from the asset; unloads it when no references remain.
+     */
+    public static synchronized void release(String path) {
+        int count = references.get(path, 0);
+        if (count <= 0) {
+            System.err.println("GameAssets: release without acquire: " + path);
+            return;
+        }
+        if (count == 1) {
+            references.remove(path, 0);
+            if (manager != null && manager.isLoaded(path)) {
+                manager.unload(path);
+            }
+        } else {
+            references.put(path, count - 1);
+        }
+    }
+
+    /**
+     * Returns the number of assets currently resident in the manager, dependencies included.
+     */
+    public static synchronized int getLoadedAssetCount() {
+        return manager == null ? 0 : manager.getLoadedAssets();
+    }
+
+    /**
+     * Returns the number of outstanding references held through this registry.
+     */
+    public static synchronized int getReferenceCount(String path) {
+        return references.get(path, 0);
+    }
+
+    /**
+     * Adds a manager reference to a loaded asset and its dependencies, as a repeated load would,
+     * so that dropping a preload later cannot unload e.g. the tilesets of an acquired map.
+     */
+    private static void addManagerReference(AssetManager assets, String path) {
+        assets.setReferenceCount(path, assets.getReferenceCount(path) + 1);
+        Array<String> dependencies = assets.getDependencies(path);
+        if (dependencies != null) {
+            for (String dependency : dependencies) {
+                addManagerReference(assets, dependency);
+            }
+        }
+    }
+
+    private static String regionName(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot > 0 ? path.substring(0, dot) : path;
+    }
+
+    private static boolean isPacked(String name) {
+        if (atlasRegions == null) {
+            // Reads only the atlas description; pages are loaded on first acquire
+            atlasRegions = new ObjectSet<>();
+            FileHandle atlasFile = Gdx.files.internal(ENTITY_ATLAS);
+            if (atlasFile.exists()) {
+                TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(atlasFile, atlasFile.parent(), false);
+                for (TextureAtlas.TextureAtlasData.Region region : data.getRegions()) {
+                    atlasRegions.add(region.name);
+                }
+            } else {
+                System.out.println("GameAssets: " + ENTITY_ATLAS + " not found, using standalone textures");
+            }
+        }
+        return atlasRegions.contains(name);
+    }
+
+    /**
+     * Disposes every asset still held. Called once when the application shuts down.
+     */
+    public static synchronized void dispose() {
+        references.clear();
+        if (manager != null) {
+            manager.dispose();
+            manager = null;
+        }
+    }
+}
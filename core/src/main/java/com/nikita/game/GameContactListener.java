@@ -0,0 +1,149 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.WorldManifold;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Collects the begin and end of every sensor contact into a queue that gameplay code drains
+ * after {@code world.step}, instead of reacting inside the Box2D callback where bodies must not
+ * be created or destroyed. Contacts between two solid fixtures are not queued; only the
+ * {@link CollisionCategories} sensor categories carry gameplay meaning.
+ * <p>
+ * Each event copies the categories and the fixture user data (the owning entity) at callback time,
+ * because Box2D reuses its contact objects and clears user data of destroyed fixtures. Events
+ * raised outside a step, e.g. when a body is deactivated or destroyed, are queued the same way
+ * and drained after the next step. Events are pooled, so a steady stream of contacts does not allocate.
+ * <p>
+ * The listener also makes {@link TileFlags#ONE_WAY} walls one-way: such a wall only stops bodies that
+ * land on it from above. Whether a contact is solid is decided once when it begins, from the contact
+ * normal and the other body's velocity, and holds until the contact ends, so a body that entered from
+ * below or the side is not pushed out halfway through.
+ */
+public final class GameContactListener implements ContactListener {
+    /** Minimum upward component of the wall-to-body normal for a contact to count as landing on the wall. */
+    private static final float LANDING_NORMAL = 0.5f;
+    private static final Integer ONE_WAY_KIND = TileFlags.ONE_WAY;
+
+    /**
+     * A sensor contact starting or ending, ordered so that {@link #categoryA} is not above {@link #categoryB}.
+     */
+    public static final class ContactEvent {
+        public boolean begin;
+        public short categoryA, categoryB;
+        public Object ownerA, ownerB;
+
+        /**
+         * True when the contact is between fixtures of the two given categories, in either order.
+         */
+        public boolean is(short first, short second) {
+            return (categoryA == first && categoryB == second) || (categoryA == second && categoryB == first);
+        }
+
+        /**
+         * Owner of the fixture of the given category, or null if neither side has it.
+         */
+        public Object ownerOf(short category) {
+            if (categoryA == category) return ownerA;
+            if (categoryB == category) return ownerB;
+            return null;
+        }
+    }
+
+    private final Array<ContactEvent> events = new Array<>(false, 16);
+    private final Pool<ContactEvent> pool = new Pool<ContactEvent>() {
+        @Override
+        protected ContactEvent newObject() {
+            return new ContactEvent();
+        }
+    };
+    /** Contacts passing through a one-way wall, as (wall, other) fixture pairs. */
+    private final Array<Fixture> passing = new Array<>(8);
+
+    @Override
+    public void beginContact(Contact contact) {
+        Fixture a = contact.getFixtureA(), b = contact.getFixtureB();
+        if (a != null && b != null && !a.isSensor() && !b.isSensor() && (isOneWay(a) != isOneWay(b))) {
+            boolean wallIsA = isOneWay(a);
+            Fixture wall = wallIsA ? a : b, other = wallIsA ? b : a;
+            // The manifold normal points from A to B; flip it to point from the wall to the other body
+            WorldManifold manifold = contact.getWorldManifold();
+            float normalY = wallIsA ? manifold.getNormal().y : -manifold.getNormal().y;
+            if (normalY < LANDING_NORMAL || other.getBody().getLinearVelocity().y > 0) {
+                passing.add(wall);
+                passing.add(other);
+            }
+        }
+        queue(contact, true);
+    }
+
+    @Override
+    public void endContact(Contact contact) {
+        int pair = passingPair(contact.getFixtureA(), contact.getFixtureB());
+        if (pair >= 0) passing.removeRange(pair, pair + 1);
+        queue(contact, false);
+    }
+
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+        if (passingPair(contact.getFixtureA(), contact.getFixtureB()) >= 0) contact.setEnabled(false);
+    }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse impulse) {}
+
+    public int size() {
+        return events.size;
+    }
+
+    public ContactEvent get(int index) {
+        return events.get(index);
+    }
+
+    /**
+     * Returns every queued event to the pool; call once the events of a step have been handled.
+     */
+    public void clear() {
+        pool.freeAll(events);
+        events.clear();
+    }
+
+    private static boolean isOneWay(Fixture fixture) {
+        return fixture.getFilterData().categoryBits == CollisionCategories.WALL && ONE_WAY_KIND.equals(fixture.getUserData());
+    }
+
+    /** Index of the (wall, other) pair of the two fixtures in {@link #passing}, in either order, or -1. */
+    private int passingPair(Fixture a, Fixture b) {
+        for (int i = 0; i < passing.size; i += 2) {
+            Fixture wall = passing.get(i), other = passing.get(i + 1);
+            if ((wall == a && other == b) || (wall == b && other == a)) return i;
+        }
+        return -1;
+    }
+
+    private void queue(Contact contact, boolean begin) {
+        Fixture a = contact.getFixtureA(), b = contact.getFixtureB();
+        if (a == null || b == null || (!a.isSensor() && !b.isSensor())) return;
+        short categoryA = a.getFilterData().categoryBits;
+        short categoryB = b.getFilterData().categoryBits;
+        ContactEvent event = pool.obtain();
+        event.begin = begin;
+        if (categoryA <= categoryB) {
+            event.categoryA = categoryA;
+            event.categoryB = categoryB;
+            event.ownerA = a.getUserData();
+            event.ownerB = b.getUserData();
+        } else {
+            event.categoryA = categoryB;
+            event.categoryB = categoryA;
+            event.ownerA = b.getUserData();
+            event.ownerB = a.getUserData();
+        }
+        events.add(event);
+    }
+}
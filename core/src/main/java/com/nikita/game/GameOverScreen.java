@@ -1,7 +1,6 @@
 package com.nikita.game;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
@@ -133,20 +132,21 @@ public class GameOverScreen implements Screen {
     }
 
     private void handleInput() {
-        if (Gdx.input.isKeyJustPressed(Input.Keys.UP) || Gdx.input.isKeyJustPressed(Input.Keys.DOWN)) {
+        InputActions actions = InputQueue.frame();
+        if (actions.isPressed(InputActions.UP | InputActions.DOWN)) {
             selectedOption = 1 - selectedOption; // Переключение между 0 и 1
         }
 
-        if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER) || Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+        if (actions.isPressed(InputActions.CONFIRM)) {
             if (selectedOption == 0) {
                 // Возврат к последнему чекпоинту
                 if (game != null) {
-                    game.setScreen(new GameScreen(game, levelName));
+                    game.setScreen(new LoadingScreen(game, levelName));
                 }
             } else {
                 // Возврат в главное меню
                 if (game != null) {
-                    game.setScreen(new FirstScreen(game));
+                    game.setScreen(game.getMainMenu());
                 }
             }
         }
@@ -0,0 +1,93 @@
+package com.nikita.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small, seedable SplitMix64 generator for gameplay and effects, replacing {@code Math.random()}
+ * and its synchronized global {@link java.util.Random}. An instance is one stream of numbers and is
+ * not thread-safe: each subsystem, and each worker thread, draws from a stream of its own, so nothing
+ * is shared or locked and nothing is allocated per number.
+ * <p>
+ * Streams derived with {@link #forStream} from the same seed are independent of each other, so adding
+ * draws to the effects stream never changes which attacks the boss picks. A fight is reproduced by
+ * deriving its streams from the same seed again, e.g. the one recorded in an {@link InputLog}.
+ */
+public final class GameRandom {
+    /** Boss and enemy decisions: attack choice, timers, summon positions. */
+    public static final int AI = 0;
+    /** Hit and damage rolls of the simulation. */
+    public static final int COMBAT = 1;
+    /** Purely visual randomness such as screen shake; never read by a simulation. */
+    public static final int VFX = 2;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final AtomicLong seedUniquifier = new AtomicLong(0x5DEECE66DL);
+
+    private long state;
+
+    public GameRandom(long seed) {
+        state = seed;
+    }
+
+    /**
+     * The given stream of a seed, e.g. {@code forStream(seed, GameRandom.AI)}.
+     */
+    public static GameRandom forStream(long seed, int stream) {
+        return new GameRandom(mix(seed + GOLDEN_GAMMA * (stream + 1)));
+    }
+
+    /**
+     * A seed for runs that need not be reproduced; differs between calls even within one nanosecond.
+     */
+    public static long newSeed() {
+        return mix(System.nanoTime() ^ seedUniquifier.addAndGet(GOLDEN_GAMMA));
+    }
+
+    /**
+     * A new generator whose numbers are independent of this one's, e.g. one per worker thread.
+     * Advances this generator by one number.
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Uniform in {@code [0, bound)}; {@code bound} must be positive.
+     */
+    public int nextInt(int bound) {
+        // Multiply-shift instead of modulo; the bias is far below anything a game can notice
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Uniform in {@code [0, 1)}.
+     */
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * Uniform in {@code [min, max)}.
+     */
+    public float nextFloat(float min, float max) {
+        return min + nextFloat() * (max - min);
+    }
+
+    /**
+     * True with the given probability (0..1).
+     */
+    public boolean chance(float probability) {
+        return nextFloat() < probability;
+    }
+
+    // SplitMix64 finalizer (Steele, Lea, Flood 2014)
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
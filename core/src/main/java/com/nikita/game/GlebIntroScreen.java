@@ -88,8 +88,10 @@ public class GlebIntroScreen implements Screen {
     }
 
     private void startBossFight() {
-        // Create and transition to the boss fight screen
-        game.setScreen(new SoulKeeperBossScreen(game, soundManager));
+        // Create and transition to the boss fight screen; it takes over the sound manager
+        SoundManager sounds = soundManager;
+        soundManager = null;
+        game.setScreen(new SoulKeeperBossScreen(game, sounds));
     }
 
     @Override
@@ -108,7 +110,7 @@ public class GlebIntroScreen implements Screen {
         batch.setProjectionMatrix(camera.combined);
 
         // Update dialogue
-        dialogueManager.update();
+        dialogueManager.update(InputQueue.frame());
 
         // Render scene
         batch.begin();
@@ -151,6 +153,6 @@ public class GlebIntroScreen implements Screen {
         background.dispose();
         glebTexture.dispose();
         dialogueManager.dispose();
-        soundManager.dispose();
+        if (soundManager != null) soundManager.dispose();
     }
 }
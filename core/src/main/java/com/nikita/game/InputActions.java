@@ -0,0 +1,85 @@
+package com.nikita.game;
+
+/**
+ * Immutable game actions for one simulation tick or one menu frame, mapped from raw key and touch
+ * events by an {@link InputQueue.Reader}. Actions are bits: {@link #isHeld} is true while a bound key
+ * is down at the end of the tick, {@link #isPressed} when a bound key went down during it, so a tap
+ * shorter than a tick is still seen exactly once.
+ * <p>
+ * The seven {@link #GAMEPLAY} bits double as the per-tick mask stored in {@link InputLog} files;
+ * do not reorder them without bumping {@link InputLog#VERSION}.
+ */
+public final class InputActions {
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int DOWN = 1 << 2;
+    public static final int UP = 1 << 3;
+    public static final int ATTACK = 1 << 4;
+    public static final int JUMP = 1 << 5;
+    public static final int INTERACT = 1 << 6;
+    /** Menu and dialog confirmation (Enter, Space). */
+    public static final int CONFIRM = 1 << 7;
+    /** Escape: opens or closes the exit dialogs. */
+    public static final int BACK = 1 << 8;
+    /** Mouse click or touch; its position is {@link #getClickX()}, {@link #getClickY()}. */
+    public static final int CLICK = 1 << 9;
+    /** F1: transition debugging in levels. */
+    public static final int DEBUG = 1 << 10;
+    /** 9: skips the prologue. */
+    public static final int SKIP = 1 << 11;
+
+    /** Movement, which the player reads as held keys. */
+    public static final int MOVEMENT = LEFT | RIGHT | DOWN | UP;
+    /** Everything the simulation reads; fits in the seven bits of an {@link InputLog} entry. */
+    public static final int GAMEPLAY = MOVEMENT | ATTACK | JUMP | INTERACT;
+
+    /** No key held, nothing pressed. */
+    public static final InputActions NONE = new InputActions(0, 0, 0, 0);
+
+    private final int held;
+    private final int pressed;
+    private final int clickX, clickY;
+
+    InputActions(int held, int pressed, int clickX, int clickY) {
+        this.held = held;
+        this.pressed = pressed;
+        this.clickX = clickX;
+        this.clickY = clickY;
+    }
+
+    /**
+     * True if any of the given actions is held at the end of the tick.
+     */
+    public boolean isHeld(int actions) {
+        return (held & actions) != 0;
+    }
+
+    /**
+     * True if any of the given actions was pressed during the tick.
+     */
+    public boolean isPressed(int actions) {
+        return (pressed & actions) != 0;
+    }
+
+    public int getHeld() {
+        return held;
+    }
+
+    public int getPressed() {
+        return pressed;
+    }
+
+    /**
+     * Window x of the last click in the tick, in pixels from the left.
+     */
+    public int getClickX() {
+        return clickX;
+    }
+
+    /**
+     * Window y of the last click in the tick, in pixels from the top, like {@code Gdx.input.getY()}.
+     */
+    public int getClickY() {
+        return clickY;
+    }
+}
@@ -0,0 +1,279 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Per-tick player input of one simulation run, recorded to or replayed from a binary file.
+ * {@link Player#update} passes the input mask it built from the keyboard through {@link #next(int)}
+ * exactly once per tick: a recording log writes it down and returns it unchanged, a replaying log
+ * returns the recorded mask instead. Together with the RNG seed and the start state kept in the
+ * header, a simulation then runs tick for tick like the recorded one, whatever the frame timing.
+ * <p>
+ * Layout, big-endian: magic, version, seed, target (level name or {@code boss}) and start state as
+ * UTF-8 (short length + bytes), then one entry per input change: the number of ticks since the
+ * previous entry as an unsigned varint and the new mask byte. An entry with the mask byte {@code 0x80}
+ * closes the log; its tick is the number of recorded ticks.
+ * <p>
+ * Enabled with {@code -Dnikita.input.record=<directory>} (one file per level or fight) or
+ * {@code -Dnikita.input.replay=<file>}; {@code -Dnikita.seed=<long>} fixes the seed of a recording.
+ */
+public final class InputLog {
+    static final int MAGIC = 0x4E494E50; // "NINP"
+    /** Bump when the layout or the meaning of the {@link InputActions#GAMEPLAY} bits changes. */
+    static final int VERSION = 1;
+    /** Mask byte of the closing entry; gameplay masks never set the top bit. */
+    private static final int END = 0x80;
+
+    private final String target;
+    private final long seed;
+    private final boolean replay;
+
+    // Recording
+    private DataOutputStream out;
+    private int lastMask = -1;
+    private int lastChangeTick;
+
+    // Replay: ticks and masks of every entry, in order
+    private String startState;
+    private IntArray changeTicks;
+    private byte[] masks;
+    private int endTick;
+    private int entry;
+
+    private int tick;
+
+    private InputLog(String target, long seed, boolean replay) {
+        this.target = target;
+        this.seed = seed;
+        this.replay = replay;
+    }
+
+    /**
+     * Returns the log the system properties ask for, or null when neither recording nor replay is enabled
+     * or the replay file was recorded for another target.
+     * @throws GdxRuntimeException if the replay file cannot be read
+     */
+    public static InputLog fromSystemProperties(String target) {
+        String replayPath = System.getProperty("nikita.input.replay");
+        if (replayPath != null) {
+            InputLog log = replay(Gdx.files.absolute(new File(replayPath).getAbsolutePath()));
+            if (!log.target.equals(target)) {
+                // The game passes through other levels on its way to the recorded one; those play live
+                System.out.println("InputLog: " + replayPath + " records " + log.target + ", playing " + target + " live");
+                return null;
+            }
+            return log;
+        }
+        String recordDir = System.getProperty("nikita.input.record");
+        if (recordDir != null) {
+            String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            FileHandle file = Gdx.files.absolute(new File(recordDir, target.replaceAll("[^A-Za-z0-9_.-]", "_") + "-" + stamp + ".ninp").getAbsolutePath());
+            return record(file, target, Long.getLong("nikita.seed", GameRandom.newSeed()));
+        }
+        return null;
+    }
+
+    /**
+     * Opens a log for recording; nothing is written until {@link #start(String)}.
+     */
+    public static InputLog record(FileHandle file, String target, long seed) {
+        InputLog log = new InputLog(target, seed, false);
+        log.out = new DataOutputStream(new BufferedOutputStream(file.write(false)));
+        System.out.println("InputLog: recording " + target + " to " + file.path());
+        return log;
+    }
+
+    /**
+     * Reads a recorded log completely.
+     * @throws GdxRuntimeException if the file is missing, of another version or truncated before its header ends
+     */
+    public static InputLog replay(FileHandle file) {
+        ByteBuffer buffer = ByteBuffer.wrap(file.readBytes());
+        InputLog log;
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new GdxRuntimeException("Not an input log of version " + VERSION + ": " + file.path());
+            }
+            long seed = buffer.getLong();
+            log = new InputLog(readString(buffer), seed, true);
+            log.startState = readString(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new GdxRuntimeException("Truncated input log: " + file.path(), e);
+        }
+
+        log.changeTicks = new IntArray();
+        byte[] masks = new byte[64];
+        int tick = 0;
+        int count = 0;
+        log.endTick = -1;
+        try {
+            while (buffer.hasRemaining()) {
+                tick += readVarInt(buffer);
+                int mask = buffer.get() & 0xFF;
+                if (mask == END) {
+                    log.endTick = tick;
+                    break;
+                }
+                if (count == masks.length) masks = Arrays.copyOf(masks, count * 2);
+                log.changeTicks.add(tick);
+                masks[count++] = (byte) mask;
+            }
+        } catch (BufferUnderflowException e) {
+            // A run that crashed leaves no closing entry; replay what made it to disk
+        }
+        if (log.endTick < 0) {
+            System.err.println("InputLog: " + file.path() + " has no end entry, replaying up to its last input change");
+            log.endTick = count == 0 ? 0 : log.changeTicks.peek() + 1;
+        }
+        log.masks = masks;
+        System.out.println("InputLog: replaying " + log.target + " from " + file.path() + ", " + log.endTick + " ticks");
+        return log;
+    }
+
+    public boolean isReplay() {
+        return replay;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * Seed for the simulation's random numbers; a replay returns the recorded one.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * The start state a replay has to restore before its first tick, as the recording simulation described it.
+     */
+    public String getStartState() {
+        return startState;
+    }
+
+    /**
+     * Writes the header of a recording once the simulation knows the state it starts from.
+     */
+    public void start(String startState) {
+        if (replay || out == null) return;
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+            writeString(out, target);
+            writeString(out, startState);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Passes the input of the current tick through the log and advances it by one tick.
+     * @param input the mask built from the keyboard
+     * @return the same mask while recording, the recorded one while replaying (0 after the end)
+     */
+    public int next(int input) {
+        int current = tick++;
+        if (replay) {
+            if (current >= endTick) {
+                if (current == endTick) System.out.println("InputLog: replay of " + target + " finished after " + endTick + " ticks");
+                return 0;
+            }
+            while (entry + 1 < changeTicks.size && changeTicks.get(entry + 1) <= current) entry++;
+            return changeTicks.size > 0 && changeTicks.get(entry) <= current ? masks[entry] : 0;
+        }
+        if (out != null && input != lastMask) {
+            try {
+                writeVarInt(out, current - lastChangeTick);
+                out.writeByte(input);
+            } catch (IOException e) {
+                fail(e);
+            }
+            lastMask = input;
+            lastChangeTick = current;
+        }
+        return input;
+    }
+
+    /**
+     * True once a replay has fed every recorded tick.
+     */
+    public boolean isFinished() {
+        return replay && tick >= endTick;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Closes a recording with its end entry. Call after the last tick, once nothing ticks the simulation.
+     */
+    public void close() {
+        if (out == null) return;
+        try {
+            writeVarInt(out, tick - lastChangeTick);
+            out.writeByte(END);
+            out.close();
+            System.out.println("InputLog: recorded " + tick + " ticks of " + target);
+        } catch (IOException e) {
+            System.err.println("InputLog: could not finish the recording: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    // A full disk should not end the game: drop the recording and keep playing
+    private void fail(IOException e) {
+        System.err.println("InputLog: recording stopped: " + e.getMessage());
+        try {
+            out.close();
+        } catch (IOException ignored) {
+        }
+        out = null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = buffer.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new GdxRuntimeException("Malformed tick delta in input log");
+    }
+}
@@ -0,0 +1,207 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+
+/**
+ * The game's only {@link com.badlogic.gdx.InputProcessor}: it timestamps raw key and touch events
+ * into a ring buffer, and every consumer maps them to {@link InputActions} through its own
+ * {@link Reader}. Events are queued rather than polled, so a key pressed and released between two
+ * ticks is still seen, and a simulation on its own thread reads the same events as the menus.
+ * <p>
+ * Menus, dialogues and other per-frame code read {@link #frame()}, refreshed once per frame by
+ * {@link NikitaGame}; a simulation gets a {@link Reader} of its own and calls {@link Reader#next}
+ * once per tick with the tick's time. Without {@link #install()} (headless runs) readers see no input.
+ */
+public final class InputQueue extends InputAdapter {
+    /** Events kept for readers; a reader further behind than this resynchronizes its held keys. */
+    private static final int CAPACITY = 256;
+    private static final int KEY_DOWN = 0;
+    private static final int KEY_UP = 1;
+    private static final int TOUCH = 2;
+
+    /** Actions bound to each keycode. */
+    private static final int[] BINDINGS = new int[Input.Keys.MAX_KEYCODE + 1];
+
+    static {
+        bind(InputActions.LEFT, Input.Keys.A, Input.Keys.LEFT);
+        bind(InputActions.RIGHT, Input.Keys.D, Input.Keys.RIGHT);
+        bind(InputActions.DOWN, Input.Keys.S, Input.Keys.DOWN);
+        bind(InputActions.UP, Input.Keys.W, Input.Keys.UP);
+        bind(InputActions.ATTACK, Input.Keys.SPACE, Input.Keys.ENTER);
+        bind(InputActions.JUMP, Input.Keys.J);
+        bind(InputActions.INTERACT, Input.Keys.E);
+        bind(InputActions.CONFIRM, Input.Keys.ENTER, Input.Keys.SPACE);
+        bind(InputActions.BACK, Input.Keys.ESCAPE);
+        bind(InputActions.DEBUG, Input.Keys.F1);
+        bind(InputActions.SKIP, Input.Keys.NUM_9);
+    }
+
+    private static InputQueue installed;
+    private static Reader frameReader;
+    private static InputActions frame = InputActions.NONE;
+
+    // Ring buffer written on the render thread, read by any thread; guarded by this
+    private final long[] times = new long[CAPACITY];
+    private final int[] types = new int[CAPACITY];
+    private final int[] codes = new int[CAPACITY];
+    private final int[] xs = new int[CAPACITY];
+    private final int[] ys = new int[CAPACITY];
+    private final boolean[] keysDown = new boolean[BINDINGS.length];
+    private long written; // Sequence number of the next event
+
+    private InputQueue() {
+    }
+
+    private static void bind(int action, int... keycodes) {
+        for (int keycode : keycodes) BINDINGS[keycode] |= action;
+    }
+
+    /**
+     * Makes the queue the application's input processor. Call once from {@code create()}.
+     */
+    public static void install() {
+        installed = new InputQueue();
+        Gdx.input.setInputProcessor(installed);
+        frameReader = installed.newReader();
+    }
+
+    /**
+     * Maps the events that arrived since the last frame. {@link NikitaGame} calls it before the screen renders.
+     */
+    static void updateFrame() {
+        if (frameReader != null) frame = frameReader.next(System.nanoTime());
+    }
+
+    /**
+     * Actions of the current frame, for menus, dialogues and other code that runs once per frame.
+     */
+    public static InputActions frame() {
+        return frame;
+    }
+
+    /**
+     * A reader that starts at the next event, with the keys held right now already held.
+     * Each reader must only be used by one thread.
+     */
+    public static Reader reader() {
+        return installed != null ? installed.newReader() : new Reader(null);
+    }
+
+    private synchronized Reader newReader() {
+        Reader reader = new Reader(this);
+        reader.resync();
+        return reader;
+    }
+
+    @Override
+    public boolean keyDown(int keycode) {
+        if (keycode < 0 || keycode >= BINDINGS.length) return false;
+        add(KEY_DOWN, keycode, 0, 0);
+        return BINDINGS[keycode] != 0;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        if (keycode < 0 || keycode >= BINDINGS.length) return false;
+        add(KEY_UP, keycode, 0, 0);
+        return BINDINGS[keycode] != 0;
+    }
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        add(TOUCH, button, screenX, screenY);
+        return true;
+    }
+
+    private synchronized void add(int type, int code, int x, int y) {
+        int i = (int) (written % CAPACITY);
+        long time = Gdx.input.getCurrentEventTime();
+        times[i] = time != 0 ? time : System.nanoTime();
+        types[i] = type;
+        codes[i] = code;
+        xs[i] = x;
+        ys[i] = y;
+        if (type == KEY_DOWN) keysDown[code] = true;
+        if (type == KEY_UP) keysDown[code] = false;
+        written++;
+    }
+
+    /**
+     * One consumer's position in the queue and the keys it considers held.
+     */
+    public static final class Reader {
+        private final InputQueue queue;
+        private final boolean[] keys = new boolean[BINDINGS.length];
+        private long read;
+        private int held;
+
+        private Reader(InputQueue queue) {
+            this.queue = queue;
+        }
+
+        /**
+         * Maps the events up to the given {@link System#nanoTime()} to the actions of one tick.
+         * Later events stay queued for the following ticks.
+         */
+        public InputActions next(long untilNanos) {
+            if (queue == null) return InputActions.NONE;
+            int pressed = 0;
+            int clickX = 0, clickY = 0;
+            boolean changed = false;
+            synchronized (queue) {
+                if (queue.written - read > CAPACITY) {
+                    resync(); // Fell too far behind: the missed presses are lost, held keys are current again
+                }
+                while (read < queue.written) {
+                    int i = (int) (read % CAPACITY);
+                    if (queue.times[i] - untilNanos > 0) break;
+                    int code = queue.codes[i];
+                    switch (queue.types[i]) {
+                        case KEY_DOWN:
+                            keys[code] = true;
+                            pressed |= BINDINGS[code];
+                            changed = true;
+                            break;
+                        case KEY_UP:
+                            keys[code] = false;
+                            changed = true;
+                            break;
+                        default:
+                            pressed |= InputActions.CLICK;
+                            clickX = queue.xs[i];
+                            clickY = queue.ys[i];
+                            break;
+                    }
+                    read++;
+                }
+            }
+            if (changed) updateHeld();
+            if (held == 0 && pressed == 0) return InputActions.NONE;
+            return new InputActions(held, pressed, clickX, clickY);
+        }
+
+        /**
+         * Drops everything queued so far, keeping only which keys are held. Call while the consumer is
+         * paused, so presses meant for a dialog do not reach it when it resumes.
+         */
+        public void skip() {
+            next(System.nanoTime());
+        }
+
+        // Caller holds the queue's lock
+        private void resync() {
+            read = queue.written;
+            System.arraycopy(queue.keysDown, 0, keys, 0, keys.length);
+            updateHeld();
+        }
+
+        private void updateHeld() {
+            held = 0;
+            for (int keycode = 0; keycode < keys.length; keycode++) {
+                if (keys[keycode]) held |= BINDINGS[keycode];
+            }
+        }
+    }
+}
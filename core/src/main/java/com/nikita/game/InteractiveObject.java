@@ -1,11 +1,34 @@
 package com.nikita.game;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
 
 public abstract class InteractiveObject {
     protected Body body;
+    int spawnIndex = -1; // Индекс точки появления в SpawnTable
+    protected boolean playerInRange = false; // Игрок касается сенсора объекта; выставляется по событиям контактов
+
+    void setPlayerInRange(boolean inRange) {
+        playerInRange = inRange;
+    }
+
+    // Добавляет телу круглый сенсор (PICKUP или TRIGGER); его контакты с игроком попадают в GameContactListener
+    protected void createSensor(float radius, short category) {
+        CircleShape shape = new CircleShape();
+        shape.setRadius(radius);
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        CollisionCategories.apply(fixtureDef, category);
+        body.createFixture(fixtureDef).setUserData(this);
+        shape.dispose();
+    }
+
     public abstract void update(float delta, Player player);
-    public abstract void render(SpriteBatch batch);
+    // Добавляет спрайт объекта в снимок для отрисовки; объекты неподвижны
+    public abstract void addSprites(RenderSnapshot out);
     public abstract boolean isActive();
+
+    // Освобождает общие текстуры объекта
+    public void dispose() {}
 } 
\ No newline at end of file
@@ -7,8 +7,6 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 
@@ -52,15 +50,8 @@ public class KingIntroScreen implements Screen {
         this.game = game;
         batch = new SpriteBatch();
         kingIntro = new Texture("king_intro.png");
-        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("Roboto-Regular.ttf"));
-        FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
-        parameter.size = 32;
-        parameter.characters = FreeTypeFontGenerator.DEFAULT_CHARS + "АБВГДЕЁЖЗИЙКЛМНОПРСТУФХЦЧШЩЪЫЬЭЮЯабвгдеёжзийклмнопрстуфхцчшщъыьэюя";
-        font = generator.generateFont(parameter);
-        parameter.size = 36;
-        parameter.color = Color.GOLD;
-        nameFont = generator.generateFont(parameter);
-        generator.dispose();
+        font = FontManager.get("Roboto-Regular.ttf", 32, FontManager.RUSSIAN_CHARS, Color.WHITE);
+        nameFont = FontManager.get("Roboto-Regular.ttf", 36, FontManager.RUSSIAN_CHARS, Color.GOLD);
         // Звук для субтитров
         try { blip = Gdx.audio.newSound(Gdx.files.internal("music/bit_text_blip_high_pitch_style.wav")); } catch (Exception e) { blip = null; }
     }
@@ -142,7 +133,7 @@ public class KingIntroScreen implements Screen {
                 font.draw(batch, layout, dialogX - dialogAreaW/2f, dialogY);
             }
             dialogueTimer += delta;
-            if ((introDone && dialogueTimer > 5f && visibleChars == (dialogueIndex < dialogues.length ? dialogues[dialogueIndex].replaceAll(".*:","").trim().length() : 0)) || (introDone && (Gdx.input.isKeyJustPressed(Input.Keys.E) || Gdx.input.isKeyJustPressed(Input.Keys.SPACE)))) {
+            if ((introDone && dialogueTimer > 5f && visibleChars == (dialogueIndex < dialogues.length ? dialogues[dialogueIndex].replaceAll(".*:","").trim().length() : 0)) || (introDone && InputQueue.frame().isPressed(InputActions.INTERACT | InputActions.CONFIRM))) {
                 dialogueIndex++;
                 dialogueTimer = 0f;
                 phraseAlpha = 0f;
@@ -161,7 +152,7 @@ public class KingIntroScreen implements Screen {
             batch.draw(kingIntro, drawX, drawY, drawW, drawH);
             batch.setColor(1,1,1,1);
             if (fade >= 1f) {
-                game.setScreen(new GameScreen(game, "maps/level_0.tmx"));
+                game.setScreen(new LoadingScreen(game, "maps/level_0.tmx"));
             }
         }
         batch.end();
@@ -179,7 +170,5 @@ public class KingIntroScreen implements Screen {
     public void dispose() {
         batch.dispose();
         kingIntro.dispose();
-        font.dispose();
-        nameFont.dispose();
     }
 }
@@ -6,16 +6,15 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.audio.Music;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.math.MathUtils;
 
 public class Level1EndCutscene implements Screen {
     private NikitaGame game;
     private SpriteBatch batch;
     private BitmapFont font;
+    private boolean ownsFont = false; // Общий шрифт из FontManager не освобождаем
     private Texture background;
     private Music music;
     
@@ -54,19 +53,14 @@ public class Level1EndCutscene implements Screen {
         // Инициализация шрифта с поддержкой кириллицы
         try {
             // Пытаемся загрузить FreeType шрифт
-            FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("Roboto-Regular.ttf"));
-            FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
-            parameter.size = 24;
-            parameter.color = Color.WHITE;
-            parameter.characters = FreeTypeFontGenerator.DEFAULT_CHARS + "абвгдеёжзийклмнопрстуфхцчшщъыьэюяАБВГДЕЁЖЗИЙКЛМНОПРСТУФХЦЧШЩЪЫЬЭЮЯ";
-            font = generator.generateFont(parameter);
-            generator.dispose();
+            font = FontManager.get("Roboto-Regular.ttf", 24, FontManager.RUSSIAN_CHARS, Color.WHITE);
             System.out.println("✅ FreeType шрифт загружен успешно");
         } catch (Exception e) {
             // Если не удалось загрузить FreeType шрифт, используем стандартный
             System.out.println("⚠️ Не удалось загрузить FreeType шрифт: " + e.getMessage());
             System.out.println("⚠️ Используем стандартный шрифт");
             font = new BitmapFont();
+            ownsFont = true;
             font.setColor(Color.WHITE);
             font.getData().setScale(1.5f);
         }
@@ -118,7 +112,7 @@ public class Level1EndCutscene implements Screen {
                         music.dispose();
                     }
                     System.out.println("🎬 Катсцена завершена! Переход к level_2.tmx");
-                    game.setScreen(new GameScreen(game, "maps/level_2.tmx"));
+                    game.setScreen(new LoadingScreen(game, "maps/level_2.tmx"));
                     return;
                 }
                 sceneTimer = 0f;
@@ -178,13 +172,13 @@ public class Level1EndCutscene implements Screen {
         batch.end();
         
         // Обработка ввода для пропуска катсцены
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+        if (InputQueue.frame().isPressed(InputActions.CONFIRM)) {
             if (music != null) {
                 music.stop();
                 music.dispose();
             }
             System.out.println("🎬 Катсцена пропущена! Переход к level_2.tmx");
-            game.setScreen(new GameScreen(game, "maps/level_2.tmx"));
+            game.setScreen(new LoadingScreen(game, "maps/level_2.tmx"));
         }
     }
 
@@ -203,7 +197,9 @@ public class Level1EndCutscene implements Screen {
     @Override
     public void dispose() {
         batch.dispose();
-        font.dispose();
+        if (ownsFont) {
+            font.dispose();
+        }
         if (background != null) {
             background.dispose();
         }
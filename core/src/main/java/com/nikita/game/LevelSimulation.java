@@ -0,0 +1,818 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Игровая логика уровня без отрисовки: мир Box2D, игрок, враги, объекты, переходы между частями,
+ * завершение уровня и сохранения. Шаг выполняет либо GameScreen в потоке отрисовки, либо SimulationThread;
+ * экран видит состояние только через RenderSnapshot, а смену экрана делает сам по exitTarget снимка
+ */
+public class LevelSimulation implements Simulation {
+    // Куда уйти с уровня (RenderSnapshot.exitTarget); любое другое значение - путь следующего уровня
+    static final String EXIT_MAIN_MENU = "main_menu";
+    static final String EXIT_LEVEL1_CUTSCENE = "level1_end_cutscene";
+
+    private static final int FLOW_FIELD_RANGE = 48; // Дальше этого числа шагов враги не ищут путь к игроку
+    private static final int RECT_STRIDE = CollisionRects.STRIDE; // x, y, ширина, высота, вид (TileFlags)
+    private static final float DEATH_DELAY = 3f; // Сколько секунд показываем смерть перед выходом в меню
+
+    private final String levelName;
+    private final TiledMap map;
+    private final int mapWidth, mapHeight; // Размер карты в тайлах, из свойств карты
+    private World world;
+    private Player player;
+    private EnemyStore enemies; // Враги в параллельных массивах; системы обходят только активные
+    private Array<InteractiveObject> objects; // Печати, алтари, двери, записки, ключи, аптечки
+    // Попадания, подборы и зоны объектов приходят событиями сенсоров после шага мира, без опроса расстояний
+    private final GameContactListener contacts = new GameContactListener();
+    private final Array<InteractiveObject> objectsInReach = new Array<>(); // Объекты, чьих сенсоров касается игрок
+    private int enemiesTouchingPlayer = 0; // Сенсоры атаки врагов, пересекающие игрока
+    private int hazardsTouchingPlayer = 0; // Тайлы-ловушки карты, на которых стоит игрок
+    private SpawnTable spawnTable; // Точки появления из слоя Spawns карты
+    private boolean[] spawned; // Создана ли уже сущность точки появления (по индексу в spawnTable)
+    private WorldState worldState; // Убитые враги, собранные предметы и сработавшие объекты по частям уровня
+    private int[] enemySlots; // Слот врага в EnemyStore по индексу точки появления, -1 - еще не создавался
+    private SoundManager soundManager;
+    private DialogueSystem dialogueSystem; // Создается при появлении первой записки или алтаря
+
+    // Видимая область камеры задается экраном (resize); по ней выбираются чанки коллизий и точки появления
+    private volatile float viewWidth = 22f, viewHeight = 17f;
+    private float focusX, focusY; // Точка, за которой следует камера, после последнего шага
+
+    // Переменные для системы переключения между частями уровня
+    private int currentLevelPart = 1; // Текущая часть уровня
+    private int totalLevelParts = 3;  // Общее количество частей уровня
+    private Array<Vector2> levelPartTransitions; // Точки перехода между частями уровня
+
+    // Защита от зацикливания переходов
+    private float lastTransitionTime = 0f;
+    private final float TRANSITION_COOLDOWN = 2.0f; // Задержка между переходами в секундах
+    private boolean transitionInProgress = false;
+    private float gameTime = 0f; // Накопленное время игры
+
+    // Переменные для перехода на следующий уровень
+    private boolean levelCompleted = false;
+    private float levelCompleteTimer = 0f;
+    private final float LEVEL_COMPLETE_DELAY = 2f; // Задержка перед переходом на следующий уровень
+    private float deathTimer = 0f;
+    private String exitTarget; // Выставляется один раз; после него шаги больше не выполняются
+    private final boolean persistent; // false при повторе записи ввода: прогресс не сохраняется
+
+    // Коллизии: тела создаются только для чанков карты рядом с камерой
+    private ChunkStreamer collisionStreamer;
+    private FlowField flowField; // Общий путь к игроку для всех преследующих врагов
+
+    /**
+     * @param map карта уровня; ее держит экран, симуляция только читает слои
+     * @param deferCollision если true, коллизионные тела создаются позже через buildCollisionBodies
+     * @param inputLog запись или повтор ввода игрока; null - обычная игра
+     */
+    public LevelSimulation(String levelName, TiledMap map, boolean deferCollision, InputLog inputLog) {
+        this.levelName = levelName;
+        this.map = map;
+        // Повтор начинается с состояния из заголовка записи и не трогает сохранение игрока
+        String[] start = inputLog != null && inputLog.isReplay() ? inputLog.getStartState().split(";", -1) : null;
+        persistent = start == null;
+        mapWidth = map.getProperties().get("width", Integer.class);
+        mapHeight = map.getProperties().get("height", Integer.class);
+
+        world = new World(new Vector2(0, 0f), true); // Убираем гравитацию для свободного движения
+        world.setContactListener(contacts);
+        player = new Player(world, 2, 2);
+        player.setBounds(mapWidth, mapHeight);
+        player.setInputLog(inputLog);
+        enemies = new EnemyStore(world);
+        objects = new Array<>();
+        soundManager = new SoundManager();
+        // Точки появления читаются один раз, сущности создаются, только когда камера рядом
+        spawnTable = SpawnTable.fromMap(map);
+        spawned = new boolean[spawnTable.size()];
+        enemySlots = new int[spawnTable.size()];
+        java.util.Arrays.fill(enemySlots, -1);
+        worldState = start != null ? WorldState.fromBase64(start[5]) : loadWorldState(); // До первого появления сущностей
+        System.out.println("📍 Точек появления: " + spawnTable.size());
+
+        // Инициализация точек перехода между частями уровня
+        levelPartTransitions = new Array<>();
+        levelPartTransitions.add(new Vector2(17, 7.5f)); // Переход из части 1 в часть 2 (правый край карты)
+        levelPartTransitions.add(new Vector2(3, 7.5f));  // Переход из части 2 в часть 1 (левый край карты)
+        levelPartTransitions.add(new Vector2(10, 13));   // Переход из части 1/2 в часть 3 (верхний край карты)
+        levelPartTransitions.add(new Vector2(10, 2));    // Переход из части 3 в часть 1 (нижний край карты)
+
+        // Добавляем специальную точку перехода на следующий уровень
+        levelPartTransitions.add(new Vector2(10, 12));   // Точка перехода на следующий уровень (более доступная)
+
+        // Инициализация врагов для первой части уровня
+        initLevelPart(currentLevelPart);
+
+        startCollisionBodies();
+        if (!deferCollision) {
+            buildCollisionBodies(Integer.MAX_VALUE);
+        }
+        if (start != null) {
+            applyStartState(start);
+        } else {
+            loadGame(); // Автоматическая загрузка прогресса
+        }
+        saveGame(); // Автоматическое сохранение при старте уровня
+        if (inputLog != null && !inputLog.isReplay()) {
+            inputLog.start(describeStartState());
+        }
+    }
+
+    /**
+     * Удаляет старые коллизионные тела, объединяет тайлы с флагами коллизий в прямоугольники
+     * и раскладывает их по чанкам вокруг стартовой позиции камеры
+     */
+    private void startCollisionBodies() {
+        // Очищаем старые коллизионные тела
+        if (collisionStreamer != null) {
+            enemies.setTerrain(null);
+            collisionStreamer.dispose();
+            collisionStreamer = null;
+        }
+
+        int[] collisionRects;
+        // Сначала геометрия, запеченная при сборке (bakeCollision): читается только файл кэша, без карты и тайлсетов
+        int[] baked = CollisionCache.load(levelName, mapWidth, mapHeight);
+        if (baked != null) {
+            collisionRects = baked;
+            System.out.println("🧱 Прямоугольников коллизий: " + collisionRects.length / RECT_STRIDE + " (из " + CollisionCache.cachePath(levelName) + ")");
+        } else {
+            System.out.println("⚠️ Нет актуального " + CollisionCache.cachePath(levelName) + ", строим коллизии из карты");
+
+            // Флаги читаются из свойств тайлов тайлсета, классификация клетки - одно обращение к массиву
+            TileFlags tileFlags = TileFlags.fromMap(map);
+            if (tileFlags.isLegacy()) {
+                System.out.println("⚠️ В тайлсетах нет свойств коллизий, используем стены " + java.util.Arrays.toString(TileFlags.LEGACY_WALL_IDS) + " слоя Walls/Ground");
+            }
+            byte[] cells = tileFlags.classify(map);
+
+            // Каждый вид тайлов объединяется отдельно: стены, односторонние, опасные зоны, триггеры
+            collisionRects = CollisionRects.build(cells, mapWidth, mapHeight);
+            System.out.println("🧱 Прямоугольников коллизий: " + collisionRects.length / RECT_STRIDE);
+        }
+
+        collisionStreamer = new ChunkStreamer(world, collisionRects, mapWidth, mapHeight);
+        enemies.setTerrain(collisionStreamer); // Враги замирают там, где стены еще не созданы
+        // Проходы по размеру тела врага; игрок того же размера, поэтому цель ищется в той же сетке
+        float enemyWidth = 2 * EnemyStore.HALF_WIDTH, enemyHeight = 2 * EnemyStore.HALF_HEIGHT;
+        flowField = new FlowField(FlowField.blockedCells(collisionRects, mapWidth, mapHeight, enemyWidth, enemyHeight),
+            mapWidth, mapHeight, enemyHeight, FLOW_FIELD_RANGE);
+        updateFocus();
+        streamCollisionAroundFocus();
+    }
+
+    /**
+     * Создает коллизионные тела для следующих чанков вокруг камеры
+     * @param count сколько чанков создать за вызов
+     * @return true, если все нужные чанки созданы
+     */
+    boolean buildCollisionBodies(int count) {
+        boolean done = collisionStreamer.loadChunks(count);
+        if (done) {
+            System.out.println("✓ Создано " + collisionStreamer.getBodyCount() + " коллизионных тел в "
+                + collisionStreamer.getLoadedChunkCount() + " чанках");
+        }
+        return done;
+    }
+
+    /**
+     * Доля созданных коллизионных тел при пошаговом создании (0..1)
+     */
+    float getCollisionProgress() {
+        return collisionStreamer == null ? 0f : collisionStreamer.getProgress();
+    }
+
+    /**
+     * Размер видимой области камеры в тайлах; можно вызывать из потока отрисовки
+     */
+    public void setViewSize(float width, float height) {
+        viewWidth = width;
+        viewHeight = height;
+    }
+
+    /**
+     * Точки перехода между частями (индекс 4 - переход на следующий уровень); не меняются после создания
+     */
+    Array<Vector2> getLevelPartTransitions() {
+        return levelPartTransitions;
+    }
+
+    /**
+     * Текстуры сущностей, которые могут появиться на этом уровне. Экран с отдельным потоком
+     * симуляции держит их заранее, чтобы появление и удаление сущностей не загружало и не
+     * выгружало текстуры вне потока OpenGL
+     */
+    Array<String> getSpawnTextures() {
+        Array<String> textures = new Array<>();
+        for (int i = 0; i < spawnTable.size(); i++) {
+            switch (spawnTable.getType(i)) {
+                case SpawnTable.ENEMY: addTexture(textures, EnemyStore.TEXTURE); break;
+                case SpawnTable.SEAL: addTexture(textures, Seal.TEXTURE); break;
+                case SpawnTable.ALTAR: addTexture(textures, Altar.TEXTURE); break;
+                case SpawnTable.SECRET_DOOR:
+                    addTexture(textures, SecretDoor.CLOSED_TEXTURE);
+                    addTexture(textures, SecretDoor.OPEN_TEXTURE);
+                    break;
+                case SpawnTable.NOTE: addTexture(textures, Note.TEXTURE); break;
+                case SpawnTable.KEY: addTexture(textures, Key.TEXTURE); break;
+                case SpawnTable.HEALTH: addTexture(textures, HealthPickup.TEXTURE); break;
+            }
+        }
+        return textures;
+    }
+
+    private static void addTexture(Array<String> textures, String path) {
+        if (!textures.contains(path, false)) textures.add(path);
+    }
+
+    /**
+     * Камера следует за игроком и не выходит за границы карты;
+     * карта меньше экрана остается по центру
+     */
+    private void updateFocus() {
+        Vector2 playerPos = player.getPosition();
+        focusX = followAxis(playerPos.x, viewWidth, mapWidth);
+        focusY = followAxis(playerPos.y, viewHeight, mapHeight);
+    }
+
+    private static float followAxis(float target, float viewportSize, float mapSize) {
+        if (viewportSize >= mapSize) return mapSize / 2f;
+        return Math.max(viewportSize / 2f, Math.min(mapSize - viewportSize / 2f, target));
+    }
+
+    // Тела нужны только рядом с видимой областью; дальние чанки освобождаются
+    private void streamCollisionAroundFocus() {
+        collisionStreamer.setFocus(focusX, focusY, viewWidth / 2f, viewHeight / 2f);
+    }
+
+    private void saveGame() {
+        if (!persistent) return;
+        Preferences prefs = Gdx.app.getPreferences("save");
+        prefs.putString("level", levelName);
+        prefs.putFloat("player_x", player.getPosition().x);
+        prefs.putFloat("player_y", player.getPosition().y);
+        prefs.putInteger("player_health", player.getHealth());
+        prefs.putInteger("player_keys", player.getKeys());
+        prefs.putInteger("player_seals", player.getSeals());
+        prefs.putString("world_state", worldState.toBase64());
+        prefs.flush();
+    }
+
+    // Состояние мира читается отдельно от loadGame: оно нужно до создания сущностей
+    private WorldState loadWorldState() {
+        Preferences prefs = Gdx.app.getPreferences("save");
+        if (prefs.contains("level") && prefs.getString("level").equals(levelName)) {
+            return WorldState.fromBase64(prefs.getString("world_state", null));
+        }
+        return new WorldState();
+    }
+
+    private void loadGame() {
+        Preferences prefs = Gdx.app.getPreferences("save");
+        if (prefs.contains("level") && prefs.getString("level").equals(levelName)) {
+            float x = prefs.getFloat("player_x", 2f);
+            float y = prefs.getFloat("player_y", 2f);
+            player.setPosition(x, y);
+            player.setHealth(prefs.getInteger("player_health", 4));
+            player.setKeys(prefs.getInteger("player_keys", 0));
+            player.setSeals(prefs.getInteger("player_seals", 0));
+        }
+    }
+
+    // Состояние старта для заголовка записи ввода: позиция, здоровье, ключи, печати и мир уровня
+    private String describeStartState() {
+        Vector2 position = player.getPosition();
+        return position.x + ";" + position.y + ";" + player.getHealth() + ";" + player.getKeys() + ";"
+            + player.getSeals() + ";" + worldState.toBase64();
+    }
+
+    // Обратное к describeStartState; мир уже восстановлен в конструкторе до появления сущностей
+    private void applyStartState(String[] start) {
+        player.setPosition(Float.parseFloat(start[0]), Float.parseFloat(start[1]));
+        player.setHealth(Integer.parseInt(start[2]));
+        player.setKeys(Integer.parseInt(start[3]));
+        player.setSeals(Integer.parseInt(start[4]));
+    }
+
+    // Пример вызова автосохранения в конце уровня
+    public void endLevel() {
+        saveGame();
+        // Здесь можно добавить переход на следующий уровень или экран победы
+    }
+
+    /**
+     * Проверяет, завершен ли уровень и инициирует переход на следующий
+     */
+    private void checkLevelCompletion(float delta) {
+        if (levelCompleted) {
+            levelCompleteTimer += delta;
+            System.out.println("⏰ Таймер завершения уровня: " + levelCompleteTimer + "/" + LEVEL_COMPLETE_DELAY);
+
+            if (levelCompleteTimer >= LEVEL_COMPLETE_DELAY) {
+                // Переход на следующий уровень
+                System.out.println("🚀 Выполняем переход на следующий уровень!");
+                goToNextLevel();
+            }
+        }
+    }
+
+    /**
+     * Отмечает уровень как завершенный
+     */
+    public void completeLevel() {
+        if (!levelCompleted) {
+            levelCompleted = true;
+            levelCompleteTimer = 0f;
+            System.out.println("🎯 Уровень отмечен как завершенный!");
+
+            // Дополнительное сообщение для первого уровня
+            if (levelName != null && (levelName.contains("level_0") || levelName.contains("test_small"))) {
+                System.out.println("🎬 Подготовка к катсцене завершения первого уровня...");
+            } else {
+                System.out.println("🎉 Переход на следующий уровень...");
+            }
+        }
+    }
+
+    /**
+     * Определяет следующий уровень на основе текущего
+     */
+    private String getNextLevelName() {
+        if (levelName == null) return "maps/level_0.tmx";
+
+        // Определяем следующий уровень на основе текущего
+        if (levelName.contains("level_0") || levelName.contains("test_small")) {
+            return "maps/level_2.tmx";
+        } else if (levelName.contains("level_2")) {
+            return "maps/level_true_fixed.tmx";
+        } else if (levelName.contains("level_true") || levelName.contains("level_true_fixed")) {
+            // Последний уровень - переход на экран победы или главное меню
+            return "victory";
+        } else {
+            // По умолчанию возвращаем первый уровень
+            return "maps/level_0.tmx";
+        }
+    }
+
+    /**
+     * Выбирает, куда уйти с уровня; сам переход делает экран
+     */
+    private void goToNextLevel() {
+        String nextLevel = getNextLevelName();
+
+        if (nextLevel.equals("victory")) {
+            // Переход на экран победы
+            System.out.println("🎉 Победа! Игра завершена!");
+            exitTarget = EXIT_MAIN_MENU;
+        } else {
+            // Проверяем, нужно ли показать катсцену для первого уровня
+            if (levelName != null && (levelName.contains("level_0") || levelName.contains("test_small"))) {
+                System.out.println("🎬 Запуск катсцены завершения первого уровня!");
+                exitTarget = EXIT_LEVEL1_CUTSCENE;
+            } else {
+                // Переход на следующий уровень
+                System.out.println("🎉 Переход на следующий уровень: " + nextLevel);
+                exitTarget = nextLevel;
+            }
+        }
+    }
+
+    /**
+     * Убирает сущности прошлой части уровня и создает сущности новой части рядом с камерой
+     * @param levelPart номер части уровня (1, 2, 3)
+     */
+    private void initLevelPart(int levelPart) {
+        int removed = 0;
+        for (int i = enemies.getActiveCount() - 1; i >= 0; i--) {
+            int slot = enemies.getActiveSlot(i);
+            if (!spawnTable.isInPart(enemies.getTag(slot), levelPart)) {
+                // Тело не удаляется, а выключается: при возвращении враг переиспользуется
+                enemies.setActive(slot, false);
+                removed++;
+            }
+        }
+        for (int i = objects.size - 1; i >= 0; i--) {
+            InteractiveObject object = objects.get(i);
+            if (!spawnTable.isInPart(object.spawnIndex, levelPart)) {
+                if (object.body != null) world.destroyBody(object.body);
+                objectsInReach.removeValue(object, true); // Событие конца контакта придет уже после удаления
+                object.dispose();
+                objects.removeIndex(i);
+                removed++;
+            }
+        }
+        // Сущности других частей появятся заново, когда игрок туда вернется, кроме уже убитых и собранных
+        for (int i = 0; i < spawned.length; i++) {
+            if (!spawnTable.isInPart(i, levelPart)) spawned[i] = false;
+        }
+
+        updateFocus();
+        spawnAroundFocus();
+        System.out.println("🔄 Инициализирована часть уровня " + levelPart + ": убрано " + removed + ", врагов " + enemies.getActiveCount() + ", объектов " + objects.size);
+    }
+
+    /**
+     * Создает еще не созданные сущности текущей части в чанках вокруг камеры
+     */
+    private void spawnAroundFocus() {
+        float halfWidth = viewWidth / 2f;
+        float halfHeight = viewHeight / 2f;
+        int minX = spawnChunk(focusX - halfWidth) - ChunkStreamer.LOAD_MARGIN;
+        int maxX = spawnChunk(focusX + halfWidth) + ChunkStreamer.LOAD_MARGIN;
+        int minY = Math.max(0, spawnChunk(focusY - halfHeight) - ChunkStreamer.LOAD_MARGIN);
+        int maxY = Math.min(spawnTable.getChunksY() - 1, spawnChunk(focusY + halfHeight) + ChunkStreamer.LOAD_MARGIN);
+        for (int chunkY = minY; chunkY <= maxY; chunkY++) {
+            int end = spawnTable.rowEnd(chunkY, maxX);
+            for (int i = spawnTable.rowStart(chunkY, minX); i < end; i++) {
+                if (!spawned[i] && spawnTable.isInPart(i, currentLevelPart) && !isResolved(i)) {
+                    spawn(i);
+                }
+            }
+        }
+    }
+
+    // Враги части побеждены, только если живых нет и ни один еще не ждет появления
+    private boolean allEnemiesDefeated() {
+        if (enemies.getActiveCount() > 0) return false;
+        for (int i = 0; i < spawned.length; i++) {
+            if (!spawned[i] && spawnTable.getType(i) == SpawnTable.ENEMY && spawnTable.isInPart(i, currentLevelPart)
+                && !isResolved(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isResolved(int index) {
+        return worldState.isResolved(spawnTable.getPart(index), spawnTable.getId(index));
+    }
+
+    // Запоминаем, что сущность больше не нужно создавать (убита, подобрана, сработала)
+    private void markResolved(int index) {
+        worldState.mark(spawnTable.getPart(index), WorldState.categoryOf(spawnTable.getType(index)), spawnTable.getId(index));
+    }
+
+    private static int spawnChunk(float tile) {
+        return (int) Math.floor(tile / ChunkStreamer.CHUNK_SIZE);
+    }
+
+    /**
+     * Создает сущность точки появления вместе с ее телом Box2D
+     */
+    private void spawn(int index) {
+        spawned[index] = true;
+        float x = spawnTable.getX(index);
+        float y = spawnTable.getY(index);
+        InteractiveObject object = null;
+        switch (spawnTable.getType(index)) {
+            case SpawnTable.ENEMY:
+                int slot = enemySlots[index];
+                if (slot < 0) {
+                    slot = enemies.spawn(x, y, spawnTable.getPatrolMin(index), spawnTable.getPatrolMax(index));
+                    enemies.setTag(slot, index);
+                    enemySlots[index] = slot;
+                } else {
+                    // Уже создавался: сбрасываем состояние в его слоте, без новых тел
+                    enemies.reset(slot, x, y, spawnTable.getPatrolMin(index), spawnTable.getPatrolMax(index));
+                    enemies.setActive(slot, true);
+                }
+                return;
+            case SpawnTable.SEAL:
+                object = new Seal(world, x, y, soundManager);
+                break;
+            case SpawnTable.ALTAR:
+                // Дверь, которую открывает алтарь, создается вместе с ним
+                int door = spawnTable.getLink(index);
+                if (door >= 0 && !spawned[door] && !isResolved(door)) spawn(door);
+                object = new Altar(world, x, y, findSecretDoor(door), soundManager, getDialogueSystem());
+                break;
+            case SpawnTable.SECRET_DOOR:
+                object = new SecretDoor(world, x, y, soundManager);
+                break;
+            case SpawnTable.NOTE:
+                String[] text = spawnTable.getTextLines(index);
+                object = new Note(world, x, y, text != null ? text : new String[]{"..."}, getDialogueSystem());
+                break;
+            case SpawnTable.KEY:
+                object = new Key(world, x, y, soundManager);
+                break;
+            case SpawnTable.HEALTH:
+                object = new HealthPickup(world, x, y, soundManager);
+                break;
+        }
+        if (object != null) {
+            object.spawnIndex = index;
+            objects.add(object);
+        }
+    }
+
+    /**
+     * Один шаг уровня: физика и враги, затем объекты, диалог, завершение, смерть и переходы между частями
+     * @param step фиксированный шаг (FixedStepper.STEP)
+     * @param input действия игрока на этом шаге
+     */
+    @Override
+    public void tick(float step, InputActions input) {
+        if (exitTarget != null) return; // Экран уже уходит с уровня
+        gameTime += step; // Накопление времени игры для защиты от зацикливания переходов
+        transitionInProgress = false; // Переход, начатый на прошлом шаге, завершен
+
+        simulateStep(step, input);
+
+        // Проверяем завершение уровня
+        checkLevelCompletion(step);
+
+        // Интерактивные объекты; диалог обновляется первым, чтобы E не пролистывал только что открытую записку
+        if (dialogueSystem != null) dialogueSystem.update(player.isInteractPressed());
+        // Объекты реагируют только на игрока внутри своего сенсора, поэтому обновляем только их
+        for (int i = objectsInReach.size - 1; i >= 0; i--) {
+            InteractiveObject object = objectsInReach.get(i);
+            object.update(step, player);
+            if (!object.isActive()) {
+                markResolved(object.spawnIndex);
+                objectsInReach.removeIndex(i);
+            }
+        }
+
+        // Проверка завершения уровня (все враги убиты или игрок достиг точки перехода)
+        if (!levelCompleted && currentLevelPart == totalLevelParts && allEnemiesDefeated()) {
+            System.out.println("🎯 Все враги убиты! Уровень завершен!");
+            completeLevel();
+        }
+
+        // Проверка смерти игрока: мир продолжает идти, через DEATH_DELAY экран уходит в меню
+        if (player.isDead()) {
+            if (deathTimer == 0f) {
+                System.out.println("💀 Игрок умер! Переход на экран Game Over");
+            }
+            deathTimer += step;
+            if (deathTimer >= DEATH_DELAY) {
+                // Переход на начальный экран (или специальный экран Game Over, если он будет создан)
+                exitTarget = EXIT_MAIN_MENU;
+            }
+            return;
+        }
+
+        checkTransitions();
+
+        // Камера следует за игроком, коллизии и сущности подгружаются вокруг нее
+        updateFocus();
+        streamCollisionAroundFocus();
+        collisionStreamer.loadChunks(Integer.MAX_VALUE);
+        spawnAroundFocus();
+    }
+
+    /**
+     * Физика, события контактов, игрок и враги
+     */
+    private void simulateStep(float step, InputActions input) {
+        player.savePreviousPosition();
+        enemies.savePreviousPositions();
+        world.step(step, 6, 2);
+        handleContacts(); // Попадания атаки игрока, касания врагов и сенсоров объектов за этот шаг
+        player.update(step, input);
+
+        // Поле направлений пересчитывается, только когда игрок переходит на другой тайл
+        if (enemies.getActiveCount() > 0) {
+            Vector2 target = player.getPosition();
+            flowField.update(target.x, target.y);
+        }
+
+        // Обновление врагов и проверка их атак на игрока
+        for (int i = enemies.getActiveCount() - 1; i >= 0; i--) {
+            int slot = enemies.getActiveSlot(i);
+            if (enemies.isDead(slot)) {
+                // Убираем мертвого врага из мира; слот и тело остаются для возвращения в часть
+                enemies.setActive(slot, false);
+                markResolved(enemies.getTag(slot));
+                System.out.println("💀 Враг удален из игрового мира!");
+            }
+        }
+        Vector2 playerPosition = player.getPosition();
+        enemies.setView(focusX, focusY, viewWidth / 2f, viewHeight / 2f); // Видимые враги думают каждый шаг
+        enemies.update(playerPosition.x, playerPosition.y, flowField);
+
+        // Атака врагов на игрока: пока сенсор атаки хотя бы одного врага касается игрока
+        if (enemiesTouchingPlayer > 0 && !player.isInvulnerable()) {
+            player.takeDamage(1); // Наносим 1 урон игроку
+            System.out.println("⚔️ Враг атаковал игрока! Здоровье игрока: " + player.getHealth());
+        }
+        // Ловушки ранят так же: пока игрок стоит хотя бы на одной, с паузой неуязвимости между ударами
+        if (hazardsTouchingPlayer > 0 && !player.isInvulnerable()) {
+            player.takeDamage(1);
+            System.out.println("🔥 Игрок наступил на ловушку! Здоровье игрока: " + player.getHealth());
+        }
+    }
+
+    /**
+     * Разбирает очередь событий сенсоров, накопленную за шаг мира
+     */
+    private void handleContacts() {
+        for (int i = 0; i < contacts.size(); i++) {
+            GameContactListener.ContactEvent event = contacts.get(i);
+            if (event.is(CollisionCategories.PLAYER_ATTACK, CollisionCategories.ENEMY)) {
+                // Сенсор атаки включен только во время удара; одна атака ранит одного врага
+                int slot = enemies.slotOf(event.ownerOf(CollisionCategories.ENEMY));
+                if (slot >= 0 && event.begin && player.canAttackHit() && !enemies.isDead(slot)) {
+                    enemies.takeDamage(slot, 1); // Наносим 1 урон (враг умрет после 2 ударов)
+                    player.setAttackHit(); // Помечаем, что атака попала
+                    System.out.println("🗡️ Игрок атаковал врага! Здоровье врага: " + enemies.getHealth(slot));
+                }
+            } else if (event.is(CollisionCategories.ENEMY_ATTACK, CollisionCategories.PLAYER)) {
+                enemiesTouchingPlayer += event.begin ? 1 : -1;
+            } else if (event.is(CollisionCategories.TRIGGER, CollisionCategories.PLAYER)
+                && event.ownerOf(CollisionCategories.TRIGGER) instanceof Integer) {
+                // Тайлы карты: у сенсора вместо владельца его вид из TileFlags
+                int kind = (Integer) event.ownerOf(CollisionCategories.TRIGGER);
+                if (kind == TileFlags.HAZARD) {
+                    hazardsTouchingPlayer += event.begin ? 1 : -1;
+                } else if (kind == TileFlags.TRIGGER && event.begin && !levelCompleted) {
+                    System.out.println("🎯 Игрок вошел в зону выхода с уровня!");
+                    completeLevel();
+                }
+            } else if (event.is(CollisionCategories.PICKUP, CollisionCategories.PLAYER)
+                || event.is(CollisionCategories.TRIGGER, CollisionCategories.PLAYER)) {
+                Object owner = event.ownerA instanceof InteractiveObject ? event.ownerA : event.ownerB;
+                if (!(owner instanceof InteractiveObject)) continue;
+                InteractiveObject object = (InteractiveObject) owner;
+                object.setPlayerInRange(event.begin);
+                if (event.begin) {
+                    if (objects.contains(object, true) && !objectsInReach.contains(object, true)) objectsInReach.add(object);
+                } else {
+                    objectsInReach.removeValue(object, true);
+                }
+            }
+        }
+        contacts.clear();
+    }
+
+    /**
+     * Проверка перехода между частями уровня и на следующий уровень
+     */
+    private void checkTransitions() {
+        Vector2 playerPos = player.getPosition();
+
+        // Проверяем все точки перехода
+        float transitionDistance = 3.0f; // Увеличиваем расстояние для более легких переходов
+
+        // Проверка перехода на следующий уровень (когда игрок достигает определенной точки в последней части)
+        if (currentLevelPart == totalLevelParts && playerPos.dst(levelPartTransitions.get(4)) < transitionDistance && !levelCompleted) {
+            // Игрок достиг точки перехода на следующий уровень в последней части
+            System.out.println("🎯 Игрок достиг точки перехода на следующий уровень!");
+            System.out.println("   Позиция игрока: " + playerPos);
+            System.out.println("   Точка перехода: " + levelPartTransitions.get(4));
+            System.out.println("   Расстояние: " + playerPos.dst(levelPartTransitions.get(4)));
+            System.out.println("   Текущая часть: " + currentLevelPart + "/" + totalLevelParts);
+            completeLevel();
+        }
+        // Альтернативная проверка: если игрок находится в любой части и убил всех врагов
+        else if (!levelCompleted && allEnemiesDefeated()) {
+            System.out.println("🎯 Все враги убиты! Уровень завершен!");
+            System.out.println("   Позиция игрока: " + playerPos);
+            System.out.println("   Текущая часть: " + currentLevelPart + "/" + totalLevelParts);
+            completeLevel();
+        }
+        // Переход из части 1 в часть 2 (правый край карты)
+        else if (currentLevelPart == 1 && playerPos.dst(levelPartTransitions.get(0)) < transitionDistance && !transitionInProgress) {
+            System.out.println("🔄 Переход из части 1 в часть 2 (правый край)");
+            switchLevelPart(2);
+        }
+        // Переход из части 2 в часть 1 (левый край карты)
+        else if (currentLevelPart == 2 && playerPos.dst(levelPartTransitions.get(1)) < transitionDistance && !transitionInProgress) {
+            System.out.println("🔄 Переход из части 2 в часть 1 (левый край)");
+            switchLevelPart(1);
+        }
+        // Переход из части 1 или 2 в часть 3 (верхний край карты)
+        else if ((currentLevelPart == 1 || currentLevelPart == 2) &&
+                 playerPos.dst(levelPartTransitions.get(2)) < transitionDistance && !transitionInProgress) {
+            System.out.println("🔄 Переход из части " + currentLevelPart + " в часть 3 (верхний край)");
+            switchLevelPart(3);
+        }
+        // Переход из части 3 в часть 1 (нижний край карты)
+        else if (currentLevelPart == 3 && playerPos.dst(levelPartTransitions.get(3)) < transitionDistance && !transitionInProgress) {
+            System.out.println("🔄 Переход из части 3 в часть 1 (нижний край)");
+            switchLevelPart(1);
+        }
+    }
+
+    private SecretDoor findSecretDoor(int spawnIndex) {
+        for (InteractiveObject object : objects) {
+            if (object.spawnIndex == spawnIndex && object instanceof SecretDoor) return (SecretDoor) object;
+        }
+        return null;
+    }
+
+    private DialogueSystem getDialogueSystem() {
+        if (dialogueSystem == null) dialogueSystem = new DialogueSystem();
+        return dialogueSystem;
+    }
+
+    /**
+     * Переключает на указанную часть уровня
+     * @param newLevelPart номер новой части уровня
+     */
+    private void switchLevelPart(int newLevelPart) {
+        if (newLevelPart < 1 || newLevelPart > totalLevelParts) {
+            System.out.println("⚠️ Попытка перехода на несуществующую часть уровня: " + newLevelPart);
+            return;
+        }
+
+        if (newLevelPart == currentLevelPart) {
+            return; // Уже находимся в этой части
+        }
+
+        // Проверяем задержку между переходами
+        if (gameTime - lastTransitionTime < TRANSITION_COOLDOWN) {
+            System.out.println("⏳ Слишком рано для перехода, ждем...");
+            return;
+        }
+
+        if (transitionInProgress) {
+            System.out.println("⚠️ Переход уже в процессе");
+            return;
+        }
+
+        transitionInProgress = true; // Сбрасывается в начале следующего шага
+        lastTransitionTime = gameTime;
+
+        System.out.println("🔄 Переход с части " + currentLevelPart + " на часть " + newLevelPart);
+
+        // Сохраняем текущее положение игрока
+        Vector2 playerPos = player.getPosition();
+
+        // Устанавливаем новую позицию игрока в зависимости от перехода с буферной зоной
+        if (currentLevelPart == 1 && newLevelPart == 2) {
+            // Переход из части 1 в часть 2 (справа)
+            player.setPosition(3, playerPos.y);
+        } else if (currentLevelPart == 2 && newLevelPart == 1) {
+            // Переход из части 2 в часть 1 (слева)
+            player.setPosition(17, playerPos.y);
+        } else if (newLevelPart == 3) {
+            // Переход в часть 3 (сверху) - устанавливаем позицию подальше от точки перехода
+            player.setPosition(10, 4);
+        } else if (currentLevelPart == 3) {
+            // Переход из части 3 (снизу) - устанавливаем позицию подальше от точки перехода
+            player.setPosition(10, 11);
+        }
+
+        // Обновляем текущую часть уровня
+        currentLevelPart = newLevelPart;
+
+        // Инициализируем врагов для новой части уровня
+        initLevelPart(currentLevelPart);
+        saveGame(); // Состояние мира переживает выход из игры
+    }
+
+    /**
+     * Спрайты объектов, игрока и врагов в порядке отрисовки, камера и состояние для интерфейса
+     */
+    @Override
+    public void writeSnapshot(RenderSnapshot out) {
+        for (InteractiveObject object : objects) {
+            object.addSprites(out);
+        }
+        player.addSprites(out);
+        enemies.addSprites(out);
+
+        // Камера между двумя шагами движется так же плавно, как спрайт игрока
+        float width = viewWidth, height = viewHeight;
+        Vector2 previous = player.getPreviousPosition();
+        Vector2 position = player.getPosition();
+        out.focusPreviousX = followAxis(previous.x, width, mapWidth);
+        out.focusPreviousY = followAxis(previous.y, height, mapHeight);
+        out.focusX = followAxis(position.x, width, mapWidth);
+        out.focusY = followAxis(position.y, height, mapHeight);
+
+        out.playerX = position.x;
+        out.playerY = position.y;
+        out.playerHealth = player.getHealth();
+        out.playerKeys = player.getKeys();
+        out.playerSeals = player.getSeals();
+        out.playerDead = player.isDead();
+        out.dialogueLine = dialogueSystem != null ? dialogueSystem.getCurrentLine() : null;
+        out.levelCompleted = levelCompleted;
+        out.levelPart = currentLevelPart;
+        out.exitTarget = exitTarget;
+    }
+
+    @Override
+    public void dispose() {
+        if (enemies != null) enemies.dispose();
+        if (objects != null) {
+            for (InteractiveObject object : objects) object.dispose();
+            objects.clear();
+        }
+        if (soundManager != null) soundManager.dispose();
+        if (dialogueSystem != null) dialogueSystem.dispose();
+        if (player != null) player.dispose();
+        if (collisionStreamer != null) collisionStreamer.dispose();
+        if (world != null) world.dispose();
+    }
+}
@@ -0,0 +1,147 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Экран загрузки уровня.
+ * Карта с тайлсетами и спрайты сущностей загружаются асинхронно через общий AssetManager,
+ * затем создается GameScreen, и его коллизионные тела создаются по несколько за кадр.
+ * Управление передается уровню, только когда все готово.
+ */
+public class LoadingScreen implements Screen {
+    // Сколько времени за кадр тратить на загрузку, чтобы полоса прогресса не замирала
+    private static final int ASSET_BUDGET_MILLIS = 8;
+    private static final long COLLISION_BUDGET_NANOS = 8_000_000L;
+    // Доли полосы прогресса: ресурсы, создание экрана, коллизии
+    private static final float ASSETS_SHARE = 0.7f;
+    private static final float SCREEN_SHARE = 0.1f;
+
+    private static final String[] ENTITY_SPRITES = {
+        Player.WALK_TEXTURE, Player.ATTACK_TEXTURE, EnemyStore.TEXTURE
+    };
+
+    private NikitaGame game;
+    private String levelName;
+    private ShapeRenderer shapeRenderer;
+    private GameScreen gameScreen;
+    private boolean preloadReleased = false;
+    private boolean collisionReady = false;
+    private float progress = 0f;
+
+    public LoadingScreen(NikitaGame game, String levelName) {
+        this.game = game;
+        this.levelName = levelName;
+        shapeRenderer = new ShapeRenderer();
+
+        System.out.println("⏳ Ставим в очередь загрузки уровень: " + levelName);
+        TmxMapLoader.Parameters mapParameters = new TmxMapLoader.Parameters();
+        mapParameters.textureMinFilter = Texture.TextureFilter.Nearest;
+        mapParameters.textureMagFilter = Texture.TextureFilter.Nearest;
+        mapParameters.generateMipMaps = false;
+        GameAssets.preload(levelName, TiledMap.class, mapParameters);
+        for (String sprite : ENTITY_SPRITES) {
+            GameAssets.preloadRegion(sprite);
+        }
+    }
+
+    @Override
+    public void show() {}
+
+    @Override
+    public void render(float delta) {
+        if (gameScreen == null) {
+            if (GameAssets.update(ASSET_BUDGET_MILLIS)) {
+                // Все ресурсы в памяти - создаем уровень без коллизий
+                gameScreen = new GameScreen(game, levelName, true);
+                releasePreload();
+            }
+        } else if (!collisionReady) {
+            long start = TimeUtils.nanoTime();
+            do {
+                collisionReady = gameScreen.buildCollisionBodies(1);
+            } while (!collisionReady && TimeUtils.timeSinceNanos(start) < COLLISION_BUDGET_NANOS);
+        }
+
+        if (gameScreen == null) {
+            progress = GameAssets.getProgress() * ASSETS_SHARE;
+        } else {
+            progress = ASSETS_SHARE + SCREEN_SHARE + gameScreen.getCollisionProgress() * (1f - ASSETS_SHARE - SCREEN_SHARE);
+        }
+
+        Gdx.gl.glClearColor(0.1f, 0.1f, 0.2f, 1); // Тот же фон, что и в игре
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        renderProgressBar();
+
+        if (collisionReady) {
+            System.out.println("✓ Уровень загружен: " + levelName);
+            game.setScreen(gameScreen);
+        }
+    }
+
+    private void renderProgressBar() {
+        float screenWidth = Gdx.graphics.getWidth();
+        float screenHeight = Gdx.graphics.getHeight();
+        float barWidth = screenWidth * 0.6f;
+        float barHeight = 24f;
+        float barX = (screenWidth - barWidth) / 2f;
+        float barY = screenHeight / 2f - barHeight / 2f;
+
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(0.2f, 0.2f, 0.3f, 1f);
+        shapeRenderer.rect(barX, barY, barWidth, barHeight);
+        shapeRenderer.setColor(Color.GOLD);
+        shapeRenderer.rect(barX, barY, barWidth * progress, barHeight);
+        shapeRenderer.end();
+
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        shapeRenderer.setColor(Color.WHITE);
+        shapeRenderer.rect(barX, barY, barWidth, barHeight);
+        shapeRenderer.end();
+    }
+
+    // GameScreen уже взял свои ссылки на ресурсы, ссылки загрузки больше не нужны
+    private void releasePreload() {
+        if (preloadReleased) return;
+        preloadReleased = true;
+        GameAssets.releasePreload(levelName);
+        for (String sprite : ENTITY_SPRITES) {
+            GameAssets.releasePreloadRegion(sprite);
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        shapeRenderer.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+    }
+
+    @Override
+    public void pause() {}
+
+    @Override
+    public void resume() {}
+
+    @Override
+    public void hide() {}
+
+    @Override
+    public void dispose() {
+        // Если загрузку прервали, освобождаем ресурсы и недостроенный уровень
+        if (gameScreen == null) {
+            releasePreload();
+        } else if (!collisionReady) {
+            gameScreen.dispose();
+        }
+        if (shapeRenderer != null) {
+            shapeRenderer.dispose();
+            shapeRenderer = null;
+        }
+    }
+}
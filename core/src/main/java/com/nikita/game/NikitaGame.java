@@ -1,11 +1,23 @@
 package com.nikita.game;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
 
-/** {@link com.badlogic.gdx.ApplicationListener} implementation shared by all platforms. */
+/**
+ * {@link com.badlogic.gdx.ApplicationListener} implementation shared by all platforms.
+ * Owns screen lifetimes: a screen replaced through {@link #setScreen(Screen)} is disposed
+ * at the end of the frame, except the cached main menu, which is reused.
+ */
 public class NikitaGame extends Game {
+    private final ObjectSet<Screen> liveScreens = new ObjectSet<>();
+    private final Array<Screen> pendingDispose = new Array<>();
+    private FirstScreen mainMenu;
+
     @Override
     public void create() {
+        InputQueue.install(); // Before the first screen: every screen reads InputQueue.frame()
         // Check for test mode via system property
         String testMode = System.getProperty("nikita.test.mode");
 
@@ -14,7 +26,75 @@ public class NikitaGame extends Game {
             setScreen(new SimpleTestScreen());
         } else {
             System.out.println("🎮 Starting normal game");
-            setScreen(new FirstScreen(this));
+            setScreen(getMainMenu());
+        }
+    }
+
+    /**
+     * Returns the main menu screen, creating it once and reusing it afterwards.
+     */
+    public FirstScreen getMainMenu() {
+        if (mainMenu == null) {
+            mainMenu = new FirstScreen(this);
+            liveScreens.add(mainMenu);
+        }
+        return mainMenu;
+    }
+
+    /**
+     * Switches to the given screen. The outgoing screen may still be inside its own render
+     * call, so it is disposed after the current frame rather than here.
+     */
+    @Override
+    public void setScreen(Screen screen) {
+        Screen previous = getScreen();
+        super.setScreen(screen);
+        if (screen != null) {
+            liveScreens.add(screen);
+        }
+        if (previous != null && previous != screen && previous != mainMenu) {
+            pendingDispose.add(previous);
+        }
+    }
+
+    @Override
+    public void render() {
+        InputQueue.updateFrame();
+        super.render();
+        disposePendingScreens();
+    }
+
+    private void disposePendingScreens() {
+        if (pendingDispose.size == 0) return;
+        for (Screen screen : pendingDispose) {
+            // Came back to it within the same frame
+            if (screen == getScreen()) continue;
+            screen.dispose();
+            liveScreens.remove(screen);
+            System.out.println("🧹 Disposed " + screen.getClass().getSimpleName()
+                + " | screens: " + getLiveScreenCount()
+                + ", assets: " + GameAssets.getLoadedAssetCount()
+                + ", fonts: " + FontManager.getFontCount());
+        }
+        pendingDispose.clear();
+    }
+
+    /**
+     * Returns the number of screens created through this game and not yet disposed, cached ones included.
+     */
+    public int getLiveScreenCount() {
+        return liveScreens.size;
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        pendingDispose.clear();
+        for (Screen screen : liveScreens) {
+            screen.dispose();
         }
+        liveScreens.clear();
+        FontManager.dispose();
+        GameAssets.dispose();
     }
 }
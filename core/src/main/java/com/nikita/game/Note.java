@@ -1,14 +1,12 @@
 package com.nikita.game;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.physics.box2d.*;
 
 public class Note extends InteractiveObject {
+    static final String TEXTURE = "note.png";
     private boolean read = false;
-    private Texture sprite = new Texture("note.png");
+    private TextureRegion sprite = GameAssets.acquireRegion(TEXTURE);
     private String[] text;
     private DialogueSystem dialogueSystem;
 
@@ -21,24 +19,32 @@ public class Note extends InteractiveObject {
         body = world.createBody(bodyDef);
         PolygonShape shape = new PolygonShape();
         shape.setAsBox(0.3f, 0.3f);
-        body.createFixture(shape, 0);
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        body.createFixture(CollisionCategories.apply(fixtureDef, CollisionCategories.WALL));
         shape.dispose();
+        createSensor(0.4f, CollisionCategories.TRIGGER); // Зона чтения: прежние 0.8 между центрами
     }
 
     @Override
     public void update(float delta, Player player) {
-        if (!read && player.getPosition().dst(body.getPosition()) < 0.8f && Gdx.input.isKeyJustPressed(Input.Keys.E)) {
+        if (!read && playerInRange && player.isInteractPressed()) {
             read = true;
             dialogueSystem.startDialogue(text);
         }
     }
 
     @Override
-    public void render(SpriteBatch batch) {
+    public void addSprites(RenderSnapshot out) {
         if (!read)
-            batch.draw(sprite, body.getPosition().x-0.3f, body.getPosition().y-0.3f, 0.6f, 0.6f);
+            out.addSprite(sprite, body.getPosition().x-0.3f, body.getPosition().y-0.3f, 0.6f, 0.6f);
     }
 
     @Override
     public boolean isActive() { return !read; }
-} 
\ No newline at end of file
+
+    @Override
+    public void dispose() {
+        GameAssets.releaseRegion(TEXTURE);
+    }
+}
@@ -1,27 +1,35 @@
 package com.nikita.game;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.physics.box2d.World;
 
+
 public class Player {
+    static final String WALK_TEXTURE = "walk_cycle.png";
+    static final String ATTACK_TEXTURE = "attack_cycle.png";
+    // Радиус сенсора атаки: с половиной ширины врага (0.4) дает прежнюю дальность 1.5 между центрами
+    private static final float ATTACK_RADIUS = 1.1f;
+
     public Body body;
-    private Texture walkTexture, attackTexture;
+    private Fixture attackFixture; // Сенсор атаки, включается только на время удара
+    private final Vector2 previousPosition = new Vector2(); // Позиция до последнего шага физики
+    private InputLog inputLog; // Запись или повтор ввода по шагам; null - ввод только с клавиатуры
+    private boolean interactPressed = false; // E нажата с прошлого шага; читают объекты и диалог
+    private TextureRegion walkTexture, attackTexture; // Регионы листов анимации (из атласа или отдельных текстур)
     private TextureRegion currentFrame;
     private Animation<TextureRegion> walkAnimation, attackAnimation;
     private Animation<TextureRegion> currentAnimation;
+    private int walkFrameNominalWidth, attackFrameNominalWidth; // Ширина кадра без учета обрезки краем листа
     private float stateTime = 0f;
     private Direction currentDirection = Direction.DOWN;
     private boolean isMoving = false;
@@ -36,6 +44,7 @@ public class Player {
     private int keys = 0;
     private int seals = 0; // Печати/кристаллы
     private boolean isDead = false;
+    private float boundsWidth = 20f, boundsHeight = 15f; // Размер карты в тайлах для ограничения движения
     private float invulnerabilityTime = 0f; // Время неуязвимости после получения урона
     private final float INVULNERABILITY_DURATION = 1.5f; // 1.5 секунды неуязвимости
 
@@ -50,6 +59,7 @@ public class Player {
         bodyDef.type = BodyDef.BodyType.DynamicBody;
         bodyDef.position.set(x, y);
         body = world.createBody(bodyDef);
+        previousPosition.set(x, y);
 
         PolygonShape shape = new PolygonShape();
         shape.setAsBox(0.4f, 0.9f);
@@ -57,12 +67,24 @@ public class Player {
         fixtureDef.shape = shape;
         fixtureDef.density = 1f;
         fixtureDef.friction = 0.2f;
-        body.createFixture(fixtureDef);
+        CollisionCategories.apply(fixtureDef, CollisionCategories.PLAYER);
+        body.createFixture(fixtureDef).setUserData(this);
         shape.dispose();
 
+        // Сенсор атаки; пока игрок не атакует, маска пустая и контактов нет
+        CircleShape attackShape = new CircleShape();
+        attackShape.setRadius(ATTACK_RADIUS);
+        FixtureDef attackDef = new FixtureDef();
+        attackDef.shape = attackShape;
+        CollisionCategories.apply(attackDef, CollisionCategories.PLAYER_ATTACK);
+        attackDef.filter.maskBits = 0;
+        attackFixture = body.createFixture(attackDef);
+        attackFixture.setUserData(this);
+        attackShape.dispose();
+
         // Загрузка текстур персонажа
-        walkTexture = new Texture("walk_cycle.png");     // Анимация ходьбы
-        attackTexture = new Texture("attack_cycle.png"); // Анимация атаки
+        walkTexture = GameAssets.acquireRegion(WALK_TEXTURE);     // Анимация ходьбы
+        attackTexture = GameAssets.acquireRegion(ATTACK_TEXTURE); // Анимация атаки
 
         // Создаем анимации (пока используем один кадр, но структура готова для спрайт-листов)
         createAnimations();
@@ -73,8 +95,8 @@ public class Player {
 
     private void createAnimations() {
         // Анимация ходьбы - 6 кадров в горизонтальном ряду
-        int walkFrameWidth = walkTexture.getWidth() / 6;  // 6 кадров ходьбы (256px каждый)
-        int walkFrameHeight = walkTexture.getHeight();
+        int walkFrameWidth = walkTexture.getRegionWidth() / 6;  // 6 кадров ходьбы (256px каждый)
+        int walkFrameHeight = walkTexture.getRegionHeight();
 
         // Обрезаем левую часть и увеличиваем правую часть для правильного центрирования
         int cropLeft = walkFrameWidth / 2;  // Обрезаем половину ширины слева
@@ -83,24 +105,27 @@ public class Player {
         TextureRegion[] walkFrames = new TextureRegion[6];
         for (int i = 0; i < 6; i++) {
             // Создаем регион с обрезкой слева и расширением справа
-            walkFrames[i] = new TextureRegion(walkTexture,
-                i * walkFrameWidth + cropLeft, 0,  // Начинаем с середины кадра (обрезаем левую часть)
-                walkFrameWidth - cropLeft + extraRight, walkFrameHeight);  // Расширяем правую часть
+            // Регион не должен выходить за край листа: в атласе справа лежат чужие спрайты
+            int frameX = i * walkFrameWidth + cropLeft;  // Начинаем с середины кадра (обрезаем левую часть)
+            int frameW = Math.min(walkFrameWidth - cropLeft + extraRight, walkTexture.getRegionWidth() - frameX);  // Расширяем правую часть
+            walkFrames[i] = new TextureRegion(walkTexture, frameX, 0, frameW, walkFrameHeight);
         }
+        walkFrameNominalWidth = walkFrameWidth - cropLeft + extraRight;
 
         // Анимация атаки - 6 кадров в горизонтальном ряду
-        int attackFrameWidth = attackTexture.getWidth() / 6;  // 6 кадров атаки (256px каждый)
-        int attackFrameHeight = attackTexture.getHeight();
+        int attackFrameWidth = attackTexture.getRegionWidth() / 6;  // 6 кадров атаки (256px каждый)
+        int attackFrameHeight = attackTexture.getRegionHeight();
 
         // Применяем ту же логику обрезки и расширения для атаки
         // Используем то же значение extraRight (walkFrameWidth/3) для согласованности
         TextureRegion[] attackFrames = new TextureRegion[6];
         for (int i = 0; i < 6; i++) {
             // Создаем регион с обрезкой слева и уменьшенным расширением справа
-            attackFrames[i] = new TextureRegion(attackTexture,
-                i * attackFrameWidth + cropLeft, 0,  // Начинаем с середины кадра (обрезаем левую часть)
-                attackFrameWidth - cropLeft + (attackFrameWidth / 3), attackFrameHeight);  // Расширяем правую часть на треть ширины
+            int frameX = i * attackFrameWidth + cropLeft;  // Начинаем с середины кадра (обрезаем левую часть)
+            int frameW = Math.min(attackFrameWidth - cropLeft + (attackFrameWidth / 3), attackTexture.getRegionWidth() - frameX);  // Расширяем правую часть на треть ширины
+            attackFrames[i] = new TextureRegion(attackTexture, frameX, 0, frameW, attackFrameHeight);
         }
+        attackFrameNominalWidth = attackFrameWidth - cropLeft + (attackFrameWidth / 3);
 
         // Настройки времени анимации
         float walkFrameDuration = 0.12f;   // Плавная ходьба
@@ -119,14 +144,40 @@ public class Player {
         System.out.println("✅ Анимации созданы:");
         System.out.println("   Ходьба: " + walkFrames.length + " кадров (" + walkFrameWidth + "x" + walkFrameHeight + ")");
         System.out.println("   Атака: " + attackFrames.length + " кадров (" + attackFrameWidth + "x" + attackFrameHeight + ")");
-        System.out.println("   Размер текстур: walk=" + walkTexture.getWidth() + "x" + walkTexture.getHeight() +
-                          ", attack=" + attackTexture.getWidth() + "x" + attackTexture.getHeight());
+        System.out.println("   Размер текстур: walk=" + walkTexture.getRegionWidth() + "x" + walkTexture.getRegionHeight() +
+                          ", attack=" + attackTexture.getRegionWidth() + "x" + attackTexture.getRegionHeight());
         System.out.println("   Обрезка: слева=" + cropLeft + "px, расширение справа=" + extraRight +
                           "px (уменьшено), итоговая ширина=" + (walkFrameWidth - cropLeft + extraRight) + "px");
     }
 
-    public void update(float delta) {
+    /**
+     * Подключает запись или повтор ввода; вызывать до первого шага
+     */
+    public void setInputLog(InputLog inputLog) {
+        this.inputLog = inputLog;
+    }
+
+    /**
+     * Нажата ли клавиша взаимодействия (E) с прошлого шага
+     */
+    public boolean isInteractPressed() {
+        return interactPressed;
+    }
+
+    /**
+     * Шаг симуляции игрока; delta - фиксированный шаг FixedStepper
+     * @param actions действия этого шага из InputQueue.Reader
+     */
+    public void update(float delta, InputActions actions) {
         stateTime += delta;
+        // Движение - удерживаемые клавиши, остальное - нажатия за шаг; одна маска на шаг пишется в InputLog
+        int input = actions.getHeld() & InputActions.MOVEMENT
+            | actions.getPressed() & (InputActions.ATTACK | InputActions.JUMP | InputActions.INTERACT);
+        // Ровно один вызов next на шаг, иначе запись и повтор разойдутся по шагам
+        if (inputLog != null) input = inputLog.next(input);
+        boolean attackPressed = (input & InputActions.ATTACK) != 0;
+        boolean jumpPressed = (input & InputActions.JUMP) != 0;
+        interactPressed = (input & InputActions.INTERACT) != 0;
 
         // Обновляем время неуязвимости
         if (invulnerabilityTime > 0) {
@@ -141,22 +192,25 @@ public class Player {
                 attackTime = 0f;
                 attackHit = false; // Сбрасываем флаг атаки
                 stateTime = 0f; // Сбрасываем время для плавного перехода
+                CollisionCategories.setMask(attackFixture, (short) 0);
             }
         }
 
         // Проверяем атаку (пробел или Enter)
-        if (!isAttacking && (Gdx.input.isKeyJustPressed(Input.Keys.SPACE) || Gdx.input.isKeyJustPressed(Input.Keys.ENTER))) {
+        if (!isAttacking && attackPressed) {
             isAttacking = true;
             attackTime = 0f;
             attackHit = false; // Сбрасываем флаг атаки
             stateTime = 0f;
+            // Враги в радиусе появятся в очереди контактов после следующего шага мира
+            CollisionCategories.setMask(attackFixture, CollisionCategories.maskOf(CollisionCategories.PLAYER_ATTACK));
             System.out.println("🗡️ Атака!");
         }
 
         // Если атакуем, не обрабатываем движение
         if (isAttacking) {
             body.setLinearVelocity(0, 0); // Останавливаем движение во время атаки
-            updateAnimation();
+            updateAnimation(delta);
             return;
         }
 
@@ -167,21 +221,21 @@ public class Player {
         boolean wasMoving = isMoving;
 
         // Горизонтальное движение
-        if (Gdx.input.isKeyPressed(Input.Keys.A) || Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
+        if ((input & InputActions.LEFT) != 0) {
             moveX = -1;
             newDirection = Direction.LEFT;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.D) || Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
+        if ((input & InputActions.RIGHT) != 0) {
             moveX = 1;
             newDirection = Direction.RIGHT;
         }
 
         // Вертикальное движение
-        if (Gdx.input.isKeyPressed(Input.Keys.S) || Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
+        if ((input & InputActions.DOWN) != 0) {
             moveY = -1;
             newDirection = Direction.DOWN;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.W) || Gdx.input.isKeyPressed(Input.Keys.UP)) {
+        if ((input & InputActions.UP) != 0) {
             moveY = 1;
             newDirection = Direction.UP;
         }
@@ -203,28 +257,28 @@ public class Player {
         float newX = currentPos.x + moveX * speed * delta;
         float newY = currentPos.y + moveY * speed * delta;
         
-        // Ограничиваем движение границами карты (20x15 тайлов)
+        // Ограничиваем движение границами карты
         if (newX < 0.5f) newX = 0.5f;
-        if (newX > 19.5f) newX = 19.5f;
+        if (newX > boundsWidth - 0.5f) newX = boundsWidth - 0.5f;
         if (newY < 0.5f) newY = 0.5f;
-        if (newY > 14.5f) newY = 14.5f;
+        if (newY > boundsHeight - 0.5f) newY = boundsHeight - 0.5f;
         
         // Применяем движение
         body.setLinearVelocity((newX - currentPos.x) / delta, (newY - currentPos.y) / delta);
 
         // Обновляем текущий кадр анимации
-        updateAnimation();
+        updateAnimation(delta);
 
         // Прыжок (на клавишу J)
-        if (Gdx.input.isKeyJustPressed(Input.Keys.J) && canJump) {
+        if (jumpPressed && canJump) {
             body.applyLinearImpulse(new Vector2(0, 6f), body.getWorldCenter(), true);
             canJump = false;
             System.out.println("🦘 Прыжок!");
         }
     }
 
-    private void updateAnimation() {
-        stateTime += Gdx.graphics.getDeltaTime();
+    private void updateAnimation(float delta) {
+        stateTime += delta;
 
         Animation<TextureRegion> newAnimation;
 
@@ -258,26 +312,44 @@ public class Player {
         }
     }
 
-    public void render(SpriteBatch batch) {
+    /**
+     * Запоминает позицию перед шагом физики для интерполяции при отрисовке
+     */
+    public void savePreviousPosition() {
+        previousPosition.set(body.getPosition());
+    }
+
+    /**
+     * Позиция до последнего шага физики
+     */
+    public Vector2 getPreviousPosition() {
+        return previousPosition;
+    }
+
+    /**
+     * Переносит игрока без интерполяции от старой позиции
+     */
+    public void setPosition(float x, float y) {
+        body.setTransform(x, y, 0);
+        previousPosition.set(x, y);
+    }
+
+    /**
+     * Добавляет текущий кадр игрока в снимок для отрисовки (с позициями до и после шага)
+     */
+    public void addSprites(RenderSnapshot out) {
         Vector2 position = body.getPosition();
         float width = 1.2f;   // Увеличенная ширина спрайта
         float height = 1.6f;  // Увеличенная высота спрайта
 
-        // Включаем блендинг для правильной прозрачности
-        batch.enableBlending();
-        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-
         // Мигание при неуязвимости
+        float alpha = 1f; // Обычный цвет
         if (isInvulnerable()) {
             // Мигаем каждые 0.1 секунды
             float blinkTime = invulnerabilityTime % 0.2f;
             if (blinkTime > 0.1f) {
-                batch.setColor(1f, 1f, 1f, 0.5f); // Полупрозрачный
-            } else {
-                batch.setColor(1f, 1f, 1f, 1f); // Обычный
+                alpha = 0.5f; // Полупрозрачный
             }
-        } else {
-            batch.setColor(1f, 1f, 1f, 1f); // Обычный цвет
         }
 
         // Рисуем текущий кадр анимации с учетом модифицированных TextureRegion
@@ -286,19 +358,30 @@ public class Player {
         float offsetX = 0.5f;  // Небольшое дополнительное смещение для точной настройки
         float widthMultiplier = 1.2f;  // Небольшое увеличение ширины для точной настройки
 
-        batch.draw(currentFrame,
-                   position.x - width/2 - offsetX,    // Смещаем немного влево для точной настройки
-                   position.y - height/2,   // Центрируем по Y
-                   width * widthMultiplier, height);  // Немного увеличиваем ширину для точной настройки
+        // Последний кадр листа уже остальных - сохраняем масштаб пикселей
+        int nominalWidth = isAttacking ? attackFrameNominalWidth : walkFrameNominalWidth;
+        float frameScale = (float) currentFrame.getRegionWidth() / nominalWidth;
 
-        // Восстанавливаем цвет
-        batch.setColor(1f, 1f, 1f, 1f);
+        float left = -width/2 - offsetX;    // Смещаем немного влево для точной настройки
+        float bottom = -height/2;           // Центрируем по Y
+        out.addSprite(currentFrame,
+                      previousPosition.x + left, previousPosition.y + bottom,
+                      position.x + left, position.y + bottom,
+                      width * widthMultiplier * frameScale, height, alpha);  // Немного увеличиваем ширину для точной настройки
     }
 
     public void setCanJump(boolean value) {
         canJump = value;
     }
 
+    /**
+     * Задает размер карты в тайлах, за который игрок не может выйти
+     */
+    public void setBounds(float width, float height) {
+        boundsWidth = width;
+        boundsHeight = height;
+    }
+
     public Vector2 getPosition() {
         return body.getPosition();
     }
@@ -373,10 +456,12 @@ public class Player {
 
     public void dispose() {
         if (walkTexture != null) {
-            walkTexture.dispose();
+            GameAssets.releaseRegion(WALK_TEXTURE);
+            walkTexture = null;
         }
         if (attackTexture != null) {
-            attackTexture.dispose();
+            GameAssets.releaseRegion(ATTACK_TEXTURE);
+            attackTexture = null;
         }
     }
 }
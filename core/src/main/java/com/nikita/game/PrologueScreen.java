@@ -6,7 +6,6 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.audio.Music;
-import com.badlogic.gdx.Input;
 
 public class PrologueScreen implements Screen {
     private NikitaGame game;
@@ -62,7 +61,7 @@ public class PrologueScreen implements Screen {
             batch.setColor(1, 1, 1, 1);
             if (fade >= 1f) {
                 music.stop();
-                game.setScreen(new GameScreen(game, "maps/level_true.tmx"));
+                game.setScreen(new LoadingScreen(game, "maps/level_true.tmx"));
             }
         }
         batch.end();
@@ -74,7 +73,7 @@ public class PrologueScreen implements Screen {
             });
         }
         // Возможность пропустить кат-сцену на цифру 9
-        if (!fading && Gdx.input.isKeyJustPressed(Input.Keys.NUM_9)) {
+        if (!fading && InputQueue.frame().isPressed(InputActions.SKIP)) {
             fading = true;
             fade = 0f;
         }
@@ -0,0 +1,134 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Everything a screen needs to draw one simulation tick: a flat sprite list plus camera, HUD
+ * and dialogue values. The simulation fills a snapshot after a tick and publishes it through a
+ * {@link SnapshotBuffer}; from then on it is read-only until the renderer hands it back, so the
+ * renderer never touches entities, bodies or the Box2D world.
+ * <p>
+ * Each sprite stores its position before and after the last step, so the renderer can interpolate
+ * between them. Storage is grown on demand and reused, so filling a snapshot does not allocate
+ * in steady state.
+ */
+public final class RenderSnapshot {
+    // previous x, previous y, x, y, width, height, alpha
+    private static final int STRIDE = 7;
+
+    private TextureRegion[] regions = new TextureRegion[64];
+    private float[] sprites = new float[64 * STRIDE];
+    private int spriteCount;
+
+    /** Simulation tick this snapshot was taken after. */
+    public long tick;
+    /** {@link System#nanoTime} when the snapshot was published. */
+    public long publishedNanos;
+
+    /** Point the camera follows, before and after the last step. */
+    public float focusPreviousX, focusPreviousY, focusX, focusY;
+
+    /** Player position after the last step, for debug output. */
+    public float playerX, playerY;
+    public int playerHealth, playerKeys, playerSeals;
+    public boolean playerDead;
+
+    /** Boss health as a share of its maximum (0..1), and its phase; unused outside boss fights. */
+    public float bossHealth;
+    public int bossPhase;
+    public boolean bossDefeated;
+
+    /** Dialogue line on screen, null when no dialogue is open. */
+    public String dialogueLine;
+    public boolean levelCompleted;
+    public int levelPart;
+    /** Where the level asks to go next (see {@link LevelSimulation}), null while it keeps running. */
+    public String exitTarget;
+
+    /**
+     * Forgets the sprites and resets the values; region references are dropped so released textures are not retained.
+     */
+    public void clear() {
+        for (int i = 0; i < spriteCount; i++) {
+            regions[i] = null;
+        }
+        spriteCount = 0;
+        tick = 0;
+        publishedNanos = 0;
+        focusPreviousX = focusPreviousY = focusX = focusY = 0f;
+        playerX = playerY = 0f;
+        playerHealth = playerKeys = playerSeals = 0;
+        playerDead = false;
+        bossHealth = 0f;
+        bossPhase = 0;
+        bossDefeated = false;
+        dialogueLine = null;
+        levelCompleted = false;
+        levelPart = 0;
+        exitTarget = null;
+    }
+
+    /**
+     * Adds a sprite drawn with its bottom-left corner at the given positions.
+     * @param alpha tint alpha, e.g. for blinking while invulnerable
+     */
+    public void addSprite(TextureRegion region, float previousX, float previousY, float x, float y,
+                          float width, float height, float alpha) {
+        if (spriteCount == regions.length) {
+            TextureRegion[] grownRegions = new TextureRegion[spriteCount * 2];
+            System.arraycopy(regions, 0, grownRegions, 0, spriteCount);
+            regions = grownRegions;
+            float[] grownSprites = new float[spriteCount * 2 * STRIDE];
+            System.arraycopy(sprites, 0, grownSprites, 0, spriteCount * STRIDE);
+            sprites = grownSprites;
+        }
+        int offset = spriteCount * STRIDE;
+        regions[spriteCount] = region;
+        sprites[offset] = previousX;
+        sprites[offset + 1] = previousY;
+        sprites[offset + 2] = x;
+        sprites[offset + 3] = y;
+        sprites[offset + 4] = width;
+        sprites[offset + 5] = height;
+        sprites[offset + 6] = alpha;
+        spriteCount++;
+    }
+
+    /**
+     * Adds a sprite that does not move.
+     */
+    public void addSprite(TextureRegion region, float x, float y, float width, float height) {
+        addSprite(region, x, y, x, y, width, height, 1f);
+    }
+
+    public int getSpriteCount() {
+        return spriteCount;
+    }
+
+    /**
+     * Draws the sprites in the order they were added, between their two states.
+     * @param alpha share of a step since the older state (0..1)
+     */
+    public void draw(SpriteBatch batch, float alpha) {
+        for (int i = 0; i < spriteCount; i++) {
+            int offset = i * STRIDE;
+            float x = sprites[offset] + (sprites[offset + 2] - sprites[offset]) * alpha;
+            float y = sprites[offset + 1] + (sprites[offset + 3] - sprites[offset + 1]) * alpha;
+            batch.setColor(1f, 1f, 1f, sprites[offset + 6]);
+            batch.draw(regions[i], x, y, sprites[offset + 4], sprites[offset + 5]);
+        }
+        batch.setColor(1f, 1f, 1f, 1f);
+    }
+
+    /**
+     * Camera focus between the two states.
+     */
+    public float getFocusX(float alpha) {
+        return focusPreviousX + (focusX - focusPreviousX) * alpha;
+    }
+
+    public float getFocusY(float alpha) {
+        return focusPreviousY + (focusY - focusPreviousY) * alpha;
+    }
+}
@@ -1,12 +1,12 @@
 package com.nikita.game;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.physics.box2d.*;
 
 public class Seal extends InteractiveObject {
+    static final String TEXTURE = "seal.png";
     private boolean collected = false;
-    private Texture sprite = new Texture("seal.png");
+    private TextureRegion sprite = GameAssets.acquireRegion(TEXTURE);
     private SoundManager soundManager;
 
     public Seal(World world, float x, float y, SoundManager soundManager) {
@@ -14,16 +14,14 @@ public class Seal extends InteractiveObject {
         bodyDef.type = BodyDef.BodyType.StaticBody;
         bodyDef.position.set(x, y);
         body = world.createBody(bodyDef);
-        PolygonShape shape = new PolygonShape();
-        shape.setAsBox(0.3f, 0.3f);
-        body.createFixture(shape, 0);
-        shape.dispose();
+        // Подбирается при касании: с половиной ширины игрока (0.4) - прежние 0.8 между центрами
+        createSensor(0.4f, CollisionCategories.PICKUP);
         this.soundManager = soundManager;
     }
 
     @Override
     public void update(float delta, Player player) {
-        if (!collected && player.getPosition().dst(body.getPosition()) < 0.8f) {
+        if (!collected && playerInRange) {
             collected = true;
             player.addSeal();
             if (soundManager != null) soundManager.playSound("seal_pickup.wav");
@@ -31,11 +29,16 @@ public class Seal extends InteractiveObject {
     }
 
     @Override
-    public void render(SpriteBatch batch) {
+    public void addSprites(RenderSnapshot out) {
         if (!collected)
-            batch.draw(sprite, body.getPosition().x-0.3f, body.getPosition().y-0.3f, 0.6f, 0.6f);
+            out.addSprite(sprite, body.getPosition().x-0.3f, body.getPosition().y-0.3f, 0.6f, 0.6f);
     }
 
     @Override
     public boolean isActive() { return !collected; }
-} 
\ No newline at end of file
+
+    @Override
+    public void dispose() {
+        GameAssets.releaseRegion(TEXTURE);
+    }
+}
@@ -1,25 +1,29 @@
 package com.nikita.game;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.physics.box2d.*;
 
 public class SecretDoor extends InteractiveObject {
+    static final String CLOSED_TEXTURE = "secret_door_closed.png";
+    static final String OPEN_TEXTURE = "secret_door_open.png";
     private boolean open = false;
-    private Texture closedSprite = new Texture("secret_door_closed.png");
-    private Texture openSprite = new Texture("secret_door_open.png");
+    private TextureRegion closedSprite = GameAssets.acquireRegion(CLOSED_TEXTURE);
+    private TextureRegion openSprite = GameAssets.acquireRegion(OPEN_TEXTURE);
     private SoundManager soundManager;
+    private final float x, y; // Позиция остается и после удаления тела открытой двери
 
     public SecretDoor(World world, float x, float y, SoundManager soundManager) {
+        this.x = x;
+        this.y = y;
         BodyDef bodyDef = new BodyDef();
         bodyDef.type = BodyDef.BodyType.StaticBody;
         bodyDef.position.set(x, y);
         body = world.createBody(bodyDef);
         PolygonShape shape = new PolygonShape();
         shape.setAsBox(0.8f, 1.2f);
-        body.createFixture(shape, 0);
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        body.createFixture(CollisionCategories.apply(fixtureDef, CollisionCategories.WALL));
         shape.dispose();
         this.soundManager = soundManager;
     }
@@ -30,9 +34,9 @@ public class SecretDoor extends InteractiveObject {
     }
 
     @Override
-    public void render(SpriteBatch batch) {
-        Texture sprite = open ? openSprite : closedSprite;
-        batch.draw(sprite, body.getPosition().x-0.8f, body.getPosition().y-1.2f, 1.6f, 2.4f);
+    public void addSprites(RenderSnapshot out) {
+        TextureRegion sprite = open ? openSprite : closedSprite;
+        out.addSprite(sprite, x-0.8f, y-1.2f, 1.6f, 2.4f);
     }
 
     @Override
@@ -43,6 +47,13 @@ public class SecretDoor extends InteractiveObject {
             open = true;
             if (soundManager != null) soundManager.playSound("door_open.wav");
             if (body != null && body.getWorld() != null) body.getWorld().destroyBody(body);
+            body = null;
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public void dispose() {
+        GameAssets.releaseRegion(CLOSED_TEXTURE);
+        GameAssets.releaseRegion(OPEN_TEXTURE);
+    }
+}
@@ -0,0 +1,25 @@
+package com.nikita.game;
+
+/**
+ * Game logic that advances in fixed steps and describes its state for rendering.
+ * Implementations own their Box2D world and entities and must only be touched by the
+ * thread that ticks them; renderers read the {@link RenderSnapshot}s they write instead.
+ */
+public interface Simulation {
+    /**
+     * Advances physics, AI and game rules by one fixed step.
+     * @param input the player's actions mapped to this tick, {@link InputActions#NONE} without input
+     */
+    void tick(float step, InputActions input);
+
+    /**
+     * Fills a cleared snapshot with the state after the last tick.
+     */
+    void writeSnapshot(RenderSnapshot out);
+
+    /**
+     * Releases the world and entities. Called on the render thread once nothing ticks the simulation
+     * any more, because entities give their shared textures back to {@link GameAssets}.
+     */
+    void dispose();
+}
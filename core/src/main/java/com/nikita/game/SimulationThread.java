@@ -0,0 +1,161 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link Simulation} on its own thread at a fixed rate and publishes a {@link RenderSnapshot}
+ * after every batch of ticks, so simulation and rendering overlap instead of adding up.
+ * The render thread only reads snapshots from the {@link SnapshotBuffer}; anything else it needs
+ * to change in the simulation goes through {@link #post(Runnable)} and runs between ticks.
+ * Input reaches the simulation through the thread's own {@link InputQueue.Reader}: each tick gets
+ * the events up to its scheduled time, also when several ticks run at once to catch up.
+ * <p>
+ * Like {@link FixedStepper}, a late thread catches up with at most {@link FixedStepper#MAX_STEPS}
+ * ticks and then drops the backlog. An exception in the simulation stops the thread and is
+ * rethrown on the render thread.
+ */
+public final class SimulationThread {
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private final Simulation simulation;
+    private final SnapshotBuffer<RenderSnapshot> snapshots;
+    private final float step;
+    private final long stepNanos;
+    private final Thread thread;
+    private final InputQueue.Reader input = InputQueue.reader();
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean running;
+    private volatile boolean paused;
+    private volatile long tickCount;
+
+    public SimulationThread(String name, Simulation simulation, SnapshotBuffer<RenderSnapshot> snapshots, float step) {
+        this.simulation = simulation;
+        this.snapshots = snapshots;
+        this.step = step;
+        this.stepNanos = (long) (step * 1_000_000_000L);
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true); // Never keeps the application alive on its own
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the loop and waits for the current tick to finish. Safe to call more than once.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        if (thread.isAlive() && Thread.currentThread() != thread) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * While paused no ticks run and no snapshots are published; posted tasks still run.
+     * Input that arrives meanwhile is dropped, so keys pressed in a dialog do not reach the game.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Runs a task on the simulation thread before its next tick.
+     */
+    public void post(Runnable task) {
+        tasks.add(task);
+        LockSupport.unpark(thread);
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Share of a step elapsed since the given snapshot was published (0..1), for render interpolation.
+     */
+    public float getAlpha(RenderSnapshot snapshot) {
+        if (snapshot.publishedNanos == 0) return 1f;
+        float alpha = (float) (System.nanoTime() - snapshot.publishedNanos) / stepNanos;
+        return Math.max(0f, Math.min(1f, alpha));
+    }
+
+    /**
+     * True when the gameplay screens should tick their simulation on a {@code SimulationThread}
+     * ({@code -Dnikita.sim.threaded=true}); otherwise they tick it on the render thread.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("nikita.sim.threaded");
+    }
+
+    /**
+     * Fills the producer's buffer from the simulation and publishes it. Screens that tick their
+     * simulation on the render thread publish through the same path.
+     */
+    public static void publish(Simulation simulation, SnapshotBuffer<RenderSnapshot> snapshots, long tick) {
+        RenderSnapshot snapshot = snapshots.getWriteBuffer();
+        snapshot.clear();
+        simulation.writeSnapshot(snapshot);
+        snapshot.tick = tick;
+        snapshot.publishedNanos = System.nanoTime();
+        snapshots.publish();
+    }
+
+    private void run() {
+        try {
+            long next = System.nanoTime();
+            while (running) {
+                runTasks();
+                long now = System.nanoTime();
+                if (paused) {
+                    next = now;
+                    input.skip();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                if (now < next) {
+                    LockSupport.parkNanos(next - now);
+                    continue;
+                }
+                int steps = 0;
+                while (now >= next && steps < FixedStepper.MAX_STEPS) {
+                    simulation.tick(step, input.next(next));
+                    tickCount++;
+                    next += stepNanos;
+                    steps++;
+                }
+                if (now >= next) {
+                    next = now; // Too far behind: drop the backlog instead of spiralling
+                }
+                publish(simulation, snapshots, tickCount);
+            }
+            runTasks();
+        } catch (Throwable e) {
+            running = false;
+            Gdx.app.postRunnable(() -> {
+                throw new GdxRuntimeException("Simulation thread " + thread.getName() + " failed", e);
+            });
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.nikita.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer between one producer (the simulation) and one consumer (the renderer).
+ * The producer fills its back buffer and {@link #publish()}es it; the consumer {@link #acquire()}s
+ * the newest published buffer. A single atomic swap moves a buffer between the two sides, so
+ * neither ever waits for the other, and a buffer is never written while the consumer holds it.
+ * If the producer publishes several times between two acquires, the consumer only sees the latest.
+ */
+public final class SnapshotBuffer<T> {
+    private static final int INDEX_MASK = 0b11;
+    /** Set on the shared index when it holds a buffer the consumer has not taken yet. */
+    private static final int FRESH = 0b100;
+
+    private final Object[] buffers;
+    private final AtomicInteger shared = new AtomicInteger(2);
+    private int writeIndex = 0; // Producer side only
+    private int readIndex = 1;  // Consumer side only
+
+    public SnapshotBuffer(T first, T second, T third) {
+        buffers = new Object[]{first, second, third};
+    }
+
+    /**
+     * The buffer the producer may fill; it stays private to the producer until {@link #publish()}.
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    /**
+     * Hands the filled buffer to the consumer and takes the spare one for the next fill.
+     */
+    public void publish() {
+        writeIndex = shared.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the newest published buffer, or the one returned last time if nothing new was published.
+     * It stays valid until the next call.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((shared.get() & FRESH) != 0) {
+            readIndex = shared.getAndSet(readIndex) & INDEX_MASK;
+        }
+        return (T) buffers[readIndex];
+    }
+
+    /**
+     * True when a buffer was published since the last {@link #acquire()}.
+     */
+    public boolean hasFresh() {
+        return (shared.get() & FRESH) != 0;
+    }
+}
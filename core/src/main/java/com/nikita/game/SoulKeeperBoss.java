@@ -1,11 +1,10 @@
 package com.nikita.game;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
 import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.physics.box2d.World;
@@ -20,8 +19,13 @@ import java.util.Map;
  * The Soul Keeper boss with multiple phases and special attacks.
  */
 public class SoulKeeperBoss {
+    private static final String TEXTURE = "enemy.png";
+    /** Reach of the boss attack sensor; with the player's half width (0.4) it covers 3 units between centres. */
+    private static final float ATTACK_RADIUS = 2.6f;
+
     public Body body;
     private Sprite sprite;
+    private final Vector2 previousPosition = new Vector2(); // Position before the last physics step
     private float speed = 3f;
     private int health = 100;
     private int maxHealth = 100;
@@ -40,9 +44,10 @@ public class SoulKeeperBoss {
     private DialogueNode phaseChangeDialogue;
     private DialogueNode defeatDialogue;
     private SoundManager soundManager;
+    private final GameRandom random; // AI stream of the fight seed, so a recorded fight replays the same attacks
 
     // Phantom summon properties
-    private List<Enemy> phantoms;
+    private EnemyStore phantoms;
     private float phantomTimer = 0;
     private static final float PHANTOM_SUMMON_INTERVAL = 10f; // 10 seconds
 
@@ -50,13 +55,22 @@ public class SoulKeeperBoss {
      * Creates the Soul Keeper boss.
      */
     public SoulKeeperBoss(World world, float x, float y, SoundManager soundManager) {
+        this(world, x, y, soundManager, GameRandom.newSeed());
+    }
+
+    /**
+     * Creates the Soul Keeper boss with a fixed seed for its action choices and phantom placement.
+     */
+    public SoulKeeperBoss(World world, float x, float y, SoundManager soundManager, long seed) {
         this.soundManager = soundManager;
+        this.random = GameRandom.forStream(seed, GameRandom.AI);
 
         // Create physics body
         BodyDef bodyDef = new BodyDef();
         bodyDef.type = BodyDef.BodyType.DynamicBody;
         bodyDef.position.set(x, y);
         body = world.createBody(bodyDef);
+        previousPosition.set(x, y);
 
         // Create collision shape (larger than regular enemies)
         PolygonShape shape = new PolygonShape();
@@ -65,11 +79,21 @@ public class SoulKeeperBoss {
         fixtureDef.shape = shape;
         fixtureDef.density = 1f;
         fixtureDef.friction = 0.2f;
-        body.createFixture(fixtureDef);
+        CollisionCategories.apply(fixtureDef, CollisionCategories.ENEMY);
+        body.createFixture(fixtureDef).setUserData(this);
         shape.dispose();
 
+        // Attack sensor; the screen deals damage while the player is inside it
+        CircleShape attackShape = new CircleShape();
+        attackShape.setRadius(ATTACK_RADIUS);
+        FixtureDef attackDef = new FixtureDef();
+        attackDef.shape = attackShape;
+        CollisionCategories.apply(attackDef, CollisionCategories.ENEMY_ATTACK);
+        body.createFixture(attackDef).setUserData(this);
+        attackShape.dispose();
+
         // Create sprite (using existing enemy.png asset)
-        sprite = new Sprite(new Texture("enemy.png"));
+        sprite = new Sprite(GameAssets.acquireRegion(TEXTURE));
         sprite.setSize(1.6f, 3.6f);
         sprite.setOriginCenter();
 
@@ -89,7 +113,7 @@ public class SoulKeeperBoss {
         phaseActions.put(2, phase2Actions);
 
         actionHandlers = new HashMap<>();
-        phantoms = new ArrayList<>();
+        phantoms = new EnemyStore(world, 4);
 
         // Set up action handlers
         setupActionHandlers(world);
@@ -106,10 +130,8 @@ public class SoulKeeperBoss {
         actionHandlers.put("summon_phantom", () -> {
             System.out.println("Soul Keeper summons a phantom!");
             Vector2 position = body.getPosition();
-            float offsetX = (float) (Math.random() * 4 - 2); // Random offset between -2 and 2
-            Enemy phantom = new Enemy(world, position.x + offsetX, position.y + 1,
-                    position.x - 5, position.x + 5);
-            phantoms.add(phantom);
+            float offsetX = random.nextFloat(-2, 2); // Random offset between -2 and 2
+            phantoms.spawn(position.x + offsetX, position.y + 1, position.x - 5, position.x + 5);
 
             // Play sound effect (using try-catch to handle missing files)
             try {
@@ -202,7 +224,7 @@ public class SoulKeeperBoss {
             // Choose a random action from the current phase
             List<String> actions = phaseActions.get(currentPhase);
             if (actions != null && !actions.isEmpty()) {
-                int actionIndex = (int)(Math.random() * actions.size());
+                int actionIndex = random.nextInt(actions.size());
                 currentAction = actions.get(actionIndex);
 
                 // Execute the action
@@ -211,7 +233,7 @@ public class SoulKeeperBoss {
                 }
 
                 // Reset timer (random between 3-5 seconds)
-                actionTimer = 3 + (float)(Math.random() * 2);
+                actionTimer = random.nextFloat(3, 5);
 
                 // Shorter timer in phase 2 for more aggressive attacks
                 if (currentPhase == 2) {
@@ -228,29 +250,35 @@ public class SoulKeeperBoss {
         }
 
         // Update phantoms
-        for (int i = phantoms.size() - 1; i >= 0; i--) {
-            Enemy phantom = phantoms.get(i);
-            phantom.update(delta, playerPos);
-
-            // Remove dead phantoms
-            if (phantom.isDead()) {
-                phantoms.remove(i);
+        // Remove dead phantoms; their slots and bodies are reused by the next summon
+        for (int i = phantoms.getActiveCount() - 1; i >= 0; i--) {
+            int slot = phantoms.getActiveSlot(i);
+            if (phantoms.isDead(slot)) {
+                phantoms.release(slot);
             }
         }
+        phantoms.update(playerPos.x, playerPos.y, null);
     }
 
     /**
-     * Renders the boss and its phantoms.
+     * Remembers the boss and phantom positions before a physics step, for render interpolation.
      */
-    public void render(SpriteBatch batch) {
-        // Render phantoms
-        for (Enemy phantom : phantoms) {
-            phantom.render(batch);
-        }
+    public void savePreviousPositions() {
+        previousPosition.set(body.getPosition());
+        phantoms.savePreviousPositions();
+    }
 
-        // Render boss
-        sprite.setPosition(body.getPosition().x - sprite.getWidth()/2, body.getPosition().y - sprite.getHeight()/2);
-        sprite.draw(batch);
+    /**
+     * Adds the phantoms and the boss to a render snapshot, with their positions before and after the last step.
+     */
+    public void addSprites(RenderSnapshot out) {
+        phantoms.addSprites(out);
+
+        Vector2 position = body.getPosition();
+        float halfWidth = sprite.getWidth()/2, halfHeight = sprite.getHeight()/2;
+        out.addSprite(sprite, previousPosition.x - halfWidth, previousPosition.y - halfHeight,
+                      position.x - halfWidth, position.y - halfHeight,
+                      sprite.getWidth(), sprite.getHeight(), 1f);
     }
 
     /**
@@ -349,9 +377,17 @@ public class SoulKeeperBoss {
     }
 
     /**
-     * Returns the list of active phantoms.
+     * Returns the phantoms; only the active slots are alive.
      */
-    public List<Enemy> getPhantoms() {
+    public EnemyStore getPhantoms() {
         return phantoms;
     }
+
+    /**
+     * Releases the shared textures held by the boss and its phantoms.
+     */
+    public void dispose() {
+        phantoms.dispose();
+        GameAssets.releaseRegion(TEXTURE);
+    }
 }
@@ -7,9 +7,7 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
-import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
@@ -25,14 +23,21 @@ public class SoulKeeperBossScreen implements Screen {
     private SpriteBatch batch;
     private OrthographicCamera camera;
     private Viewport viewport;
-    private World world;
+    private final BossFightSimulation simulation;
+    private final SnapshotBuffer<RenderSnapshot> snapshots =
+        new SnapshotBuffer<>(new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot());
+    private final FixedStepper stepper = new FixedStepper();
+    private final boolean threaded = SimulationThread.isEnabled();
+    private SimulationThread simulationThread; // Runs between show() and hide() with -Dnikita.sim.threaded=true
+    // Input for ticks on the render thread; the simulation thread has its own
+    private final InputQueue.Reader simulationInput = threaded ? null : InputQueue.reader();
+    private long ticks = 0;
+    private final InputLog inputLog; // -Dnikita.input.record / -Dnikita.input.replay, otherwise null
     private Box2DDebugRenderer debugRenderer;
     private ShapeRenderer shapeRenderer;
 
     private Texture background;
     private Texture groundTexture;
-    private Player player;
-    private SoulKeeperBoss boss;
     private DialogueManager dialogueManager;
     private SoundManager soundManager;
 
@@ -41,6 +46,7 @@ public class SoulKeeperBossScreen implements Screen {
     private boolean showingDefeatDialogue = false;
     private float screenShakeTime = 0;
     private float screenShakeIntensity = 0;
+    private final GameRandom effectsRandom; // Render thread only; separate from the simulation's streams
 
     public SoulKeeperBossScreen(NikitaGame game, SoundManager soundManager) {
         this.game = game;
@@ -53,33 +59,15 @@ public class SoulKeeperBossScreen implements Screen {
         debugRenderer = new Box2DDebugRenderer();
         shapeRenderer = new ShapeRenderer();
 
-        // Initialize physics world
-        world = new World(new Vector2(0, -9.8f), true);
-
         // Load textures (using existing assets)
         background = new Texture("start_menu_bg.png"); // Using menu background as arena background
         groundTexture = new Texture("tilesets/tileset.png"); // Using tileset for ground
 
-        // Create player
-        player = new Player(world, 5, 5);
-
-        // Create boss
-        boss = new SoulKeeperBoss(world, 25, 5, soundManager);
-
-        // Set up boss defeat handler
-        boss.setOnDefeatHandler(() -> {
-            bossDefeated = true;
-            showingDefeatDialogue = true;
-            dialogueManager.addNode(boss.getDefeatDialogue());
-            dialogueManager.startDialogue("defeat");
-
-            // Play victory music (using try-catch to handle missing files)
-            try {
-                soundManager.playMusic("prologue_theme.mp3", false); // Use existing music as placeholder
-            } catch (Exception e) {
-                System.out.println("Music file not found: prologue_theme.mp3");
-            }
-        });
+        // Create the player and the boss; the fight itself runs in the simulation
+        inputLog = InputLog.fromSystemProperties(BossFightSimulation.LOG_TARGET);
+        simulation = new BossFightSimulation(soundManager, inputLog);
+        effectsRandom = GameRandom.forStream(simulation.getSeed(), GameRandom.VFX);
+        publishSnapshot();
 
         // Initialize dialogue manager
         setupDialogueManager();
@@ -101,12 +89,12 @@ public class SoulKeeperBossScreen implements Screen {
 
         // Register action handler for granting crystal
         dialogueManager.registerActionHandler("grant_crystal_1", () -> {
-            // Add crystal to player inventory
-            ItemManager itemManager = new ItemManager(world);
-            itemManager.addCrystal(player.getPosition().x, player.getPosition().y + 2);
+            // Add crystal to player inventory; the fight is over, so the world is safe to touch here
+            stopSimulationThread();
+            simulation.grantCrystal();
 
             // Transition to next level
-            game.setScreen(new GameScreen(game, "maps/swamp_level.tmx"));
+            game.setScreen(new LoadingScreen(game, "maps/swamp_level.tmx"));
         });
 
         // Add action node for granting crystal
@@ -114,7 +102,7 @@ public class SoulKeeperBossScreen implements Screen {
         dialogueManager.addNode(grantCrystalNode);
 
         // Update defeat dialogue to link to the grant crystal action
-        DialogueNode defeatDialogue = boss.getDefeatDialogue();
+        DialogueNode defeatDialogue = simulation.getBoss().getDefeatDialogue();
         // We need to create a new node with the same properties but different next value
         DialogueNode updatedDefeatDialogue = new DialogueNode("defeat", defeatDialogue.getSpeaker(),
                 defeatDialogue.getPortrait(), defeatDialogue.getText(), "grant_crystal");
@@ -124,12 +112,27 @@ public class SoulKeeperBossScreen implements Screen {
     @Override
     public void show() {
         // Called when this screen becomes the current screen
+        if (threaded && simulationThread == null) {
+            simulationThread = new SimulationThread("boss-fight-simulation", simulation, snapshots, FixedStepper.STEP);
+            simulationThread.start();
+        }
+    }
+
+    private void stopSimulationThread() {
+        if (simulationThread != null) {
+            simulationThread.stop();
+            simulationThread = null;
+        }
+    }
+
+    private void publishSnapshot() {
+        SimulationThread.publish(simulation, snapshots, ticks);
     }
 
     @Override
     public void render(float delta) {
         // Update
-        update(delta);
+        RenderSnapshot snapshot = update(delta);
 
         // Clear the screen
         Gdx.gl.glClearColor(0.1f, 0.1f, 0.2f, 1);
@@ -137,8 +140,8 @@ public class SoulKeeperBossScreen implements Screen {
 
         // Apply screen shake if active
         if (screenShakeTime > 0) {
-            camera.position.x = WORLD_WIDTH / 2 + (float) Math.random() * screenShakeIntensity * 2 - screenShakeIntensity;
-            camera.position.y = WORLD_HEIGHT / 2 + (float) Math.random() * screenShakeIntensity * 2 - screenShakeIntensity;
+            camera.position.x = WORLD_WIDTH / 2 + effectsRandom.nextFloat(-screenShakeIntensity, screenShakeIntensity);
+            camera.position.y = WORLD_HEIGHT / 2 + effectsRandom.nextFloat(-screenShakeIntensity, screenShakeIntensity);
         } else {
             camera.position.x = WORLD_WIDTH / 2;
             camera.position.y = WORLD_HEIGHT / 2;
@@ -156,14 +159,12 @@ public class SoulKeeperBossScreen implements Screen {
         // Draw ground
         batch.draw(groundTexture, 0, 0, WORLD_WIDTH, 2);
 
-        // Draw player
-        player.render(batch);
-
-        // Draw boss
-        boss.render(batch);
+        // Draw player, phantoms and boss between their last two physics states
+        float alpha = simulationThread != null ? simulationThread.getAlpha(snapshot) : stepper.getAlpha();
+        snapshot.draw(batch, alpha);
 
         // Draw health bars
-        drawHealthBars();
+        drawHealthBars(snapshot);
 
         batch.end();
 
@@ -176,61 +177,77 @@ public class SoulKeeperBossScreen implements Screen {
         batch.end();
     }
 
-    private void update(float delta) {
+    /**
+     * Advances the fight unless a dialogue is open and returns the snapshot to draw.
+     */
+    private RenderSnapshot update(float delta) {
         // Update dialogue
-        dialogueManager.update();
+        dialogueManager.update(InputQueue.frame());
 
         // Don't update game if dialogue is active
-        if (dialogueManager.isActive()) {
-            return;
+        boolean paused = dialogueManager.isActive();
+        if (simulationThread != null) simulationThread.setPaused(paused);
+        RenderSnapshot snapshot = snapshots.acquire();
+        if (paused) {
+            // Keys that advance the dialogue must not reach the player once the fight resumes
+            if (simulationInput != null) simulationInput.skip();
+            return snapshot;
         }
 
-        // Check for phase change dialogue
-        if (boss.getCurrentPhase() == 2 && !showingPhaseDialogue) {
+        // Check for defeat and phase change dialogues reported by the simulation
+        if (snapshot.bossDefeated && !showingDefeatDialogue) {
+            bossDefeated = true;
+            showingDefeatDialogue = true;
+            dialogueManager.addNode(simulation.getBoss().getDefeatDialogue());
+            dialogueManager.startDialogue("defeat");
+            if (simulationThread != null) simulationThread.setPaused(true);
+
+            // Play victory music (using try-catch to handle missing files)
+            try {
+                soundManager.playMusic("prologue_theme.mp3", false); // Use existing music as placeholder
+            } catch (Exception e) {
+                System.out.println("Music file not found: prologue_theme.mp3");
+            }
+            return snapshot;
+        }
+        if (snapshot.bossPhase == 2 && !showingPhaseDialogue) {
             showingPhaseDialogue = true;
-            dialogueManager.addNode(boss.getPhaseChangeDialogue());
+            dialogueManager.addNode(simulation.getBoss().getPhaseChangeDialogue());
             dialogueManager.startDialogue("phase_change");
+            if (simulationThread != null) simulationThread.setPaused(true);
 
             // Add screen shake effect
             addScreenShake(0.5f, 0.2f);
 
-            return;
+            return snapshot;
         }
 
-        // Update physics world
-        world.step(1/60f, 6, 2);
-
-        // Update player
-        player.update(delta);
-
-        // Update boss
-        boss.update(delta, player.getPosition());
-
-        // Check for player-boss collision
-        // In a real implementation, this would check for hitbox collisions
-        // For simplicity, we'll just use distance
-        float distToBoss = player.getPosition().dst(boss.getPosition());
-        if (distToBoss < 2f && player.canAttackHit()) {
-            boss.takeDamage(1);
-            player.setAttackHit();
-        }
-
-        // Check for boss attacks hitting player
-        // In a real implementation, this would check for hitbox collisions
-        // For simplicity, we'll just use distance and random chance
-        if (distToBoss < 3f && Math.random() < 0.01) {
-            player.takeDamage(1);
+        // Run the fight in fixed steps, however long the frame took
+        if (simulationThread == null) {
+            int steps = stepper.advance(delta);
+            long now = System.nanoTime();
+            long stepNanos = (long) (stepper.getStep() * 1_000_000_000L);
+            for (int i = 0; i < steps; i++) {
+                // Each step gets the events up to its place in the frame, the last one all of them
+                simulation.tick(stepper.getStep(), simulationInput.next(now - (steps - 1 - i) * stepNanos));
+                ticks++;
+            }
+            if (steps > 0) {
+                publishSnapshot();
+                snapshot = snapshots.acquire();
+            }
         }
 
         // Update screen shake
         if (screenShakeTime > 0) {
             screenShakeTime -= delta;
         }
+        return snapshot;
     }
 
-    private void drawHealthBars() {
+    private void drawHealthBars(RenderSnapshot snapshot) {
         // Draw boss health bar
-        float bossHealthPercentage = (float) boss.getHealth() / boss.getMaxHealth();
+        float bossHealthPercentage = snapshot.bossHealth;
         float bossHealthBarWidth = 10;
         float bossHealthBarHeight = 0.5f;
         float bossHealthBarX = WORLD_WIDTH - bossHealthBarWidth - 1;
@@ -248,7 +265,7 @@ public class SoulKeeperBossScreen implements Screen {
         batch.setColor(1, 1, 1, 1);
 
         // Draw player health as hearts
-        for (int i = 0; i < player.getHealth(); i++) {
+        for (int i = 0; i < snapshot.playerHealth; i++) {
             // In a real implementation, this would draw heart icons
             batch.setColor(1, 0.2f, 0.2f, 1);
             batch.draw(groundTexture, 1 + i * 1.2f, WORLD_HEIGHT - 1.5f, 1, 1);
@@ -279,16 +296,20 @@ public class SoulKeeperBossScreen implements Screen {
     @Override
     public void hide() {
         // Called when this screen is no longer the current screen
+        stopSimulationThread();
     }
 
     @Override
     public void dispose() {
+        stopSimulationThread();
         batch.dispose();
-        world.dispose();
         debugRenderer.dispose();
         shapeRenderer.dispose();
         background.dispose();
         groundTexture.dispose();
         dialogueManager.dispose();
+        simulation.dispose();
+        if (inputLog != null) inputLog.close(); // After the last tick
+        if (soundManager != null) soundManager.dispose(); // Handed over by GlebIntroScreen
     }
 }
@@ -4,10 +4,12 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 import java.util.HashMap;
+import java.util.HashSet;
 
 public class SoundManager {
     private Music music;
     private HashMap<String, Sound> sounds = new HashMap<>();
+    private HashSet<String> missing = new HashSet<>();
 
     public void playMusic(String file, boolean looping) {
         if (music != null) music.stop();
@@ -21,8 +23,15 @@ public class SoundManager {
     }
 
     public void playSound(String file) {
+        if (missing.contains(file)) return;
         Sound sound = sounds.get(file);
         if (sound == null) {
+            // Звуков предметов может не быть в сборке - игра продолжается без них
+            if (!Gdx.files.internal(file).exists()) {
+                System.err.println("SoundManager: нет звука " + file);
+                missing.add(file);
+                return;
+            }
             sound = Gdx.audio.newSound(Gdx.files.internal(file));
             sounds.put(file, sound);
         }
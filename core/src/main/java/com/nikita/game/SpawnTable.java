@@ -0,0 +1,284 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+import java.util.Arrays;
+
+/**
+ * Spawn points of a level, read once from the {@code Spawns} object layer of the map.
+ * Every object's class (or type) names what it spawns: {@code enemy}, {@code seal}, {@code altar},
+ * {@code secret_door}, {@code note}, {@code key} or {@code health}. Optional properties:
+ * {@code part} (level part, 0 or absent for every part), {@code patrol_min}/{@code patrol_max}
+ * (enemy patrol range in tiles), {@code text} (note lines separated by new lines) and
+ * {@code door} (the secret door object an altar opens).
+ * <p>
+ * Entries are kept in parallel primitive arrays sorted by {@link ChunkStreamer} chunk, so only the
+ * spawns near the camera are visited and nothing is constructed until it is needed.
+ * Maps without a {@code Spawns} layer get the original hardcoded enemies of parts 1-3.
+ */
+public final class SpawnTable {
+    public static final String LAYER = "Spawns";
+
+    public static final byte ENEMY = 0;
+    public static final byte SEAL = 1;
+    public static final byte ALTAR = 2;
+    public static final byte SECRET_DOOR = 3;
+    public static final byte NOTE = 4;
+    public static final byte KEY = 5;
+    public static final byte HEALTH = 6;
+    private static final String[] TYPE_NAMES = {"enemy", "seal", "altar", "secret_door", "note", "key", "health"};
+
+    /** Default half patrol range when an enemy has no patrol properties. */
+    private static final float DEFAULT_PATROL = 2f;
+
+    private final int size;
+    /** Stable spawn id: the TMX object id, or the index for the built-in table. */
+    private final int[] ids;
+    private final byte[] types;
+    private final byte[] parts;
+    private final float[] x, y, patrolMin, patrolMax;
+    /** Index of the linked entry (altar -> door), -1 if none. */
+    private final int[] links;
+    private final String[] texts;
+
+    // Entries sorted by chunk: chunk c owns [chunkStart[c], chunkStart[c + 1])
+    private final int chunksX, chunksY;
+    private final int[] chunkStart;
+
+    private SpawnTable(int size, int[] ids, byte[] types, byte[] parts, float[] x, float[] y,
+                       float[] patrolMin, float[] patrolMax, int[] linkIds, String[] texts,
+                       int mapWidth, int mapHeight) {
+        chunksX = Math.max(1, (mapWidth + ChunkStreamer.CHUNK_SIZE - 1) / ChunkStreamer.CHUNK_SIZE);
+        chunksY = Math.max(1, (mapHeight + ChunkStreamer.CHUNK_SIZE - 1) / ChunkStreamer.CHUNK_SIZE);
+        chunkStart = new int[chunksX * chunksY + 1];
+
+        // Counting sort by chunk
+        int[] chunkOf = new int[size];
+        for (int i = 0; i < size; i++) {
+            chunkOf[i] = chunkIndex(x[i], y[i]);
+            chunkStart[chunkOf[i] + 1]++;
+        }
+        for (int c = 0; c < chunksX * chunksY; c++) {
+            chunkStart[c + 1] += chunkStart[c];
+        }
+        int[] order = new int[size];
+        int[] next = Arrays.copyOf(chunkStart, chunkStart.length - 1);
+        for (int i = 0; i < size; i++) {
+            order[next[chunkOf[i]]++] = i;
+        }
+
+        this.size = size;
+        this.ids = new int[size];
+        this.types = new byte[size];
+        this.parts = new byte[size];
+        this.x = new float[size];
+        this.y = new float[size];
+        this.patrolMin = new float[size];
+        this.patrolMax = new float[size];
+        this.links = new int[size];
+        this.texts = new String[size];
+        for (int i = 0; i < size; i++) {
+            int from = order[i];
+            this.ids[i] = ids[from];
+            this.types[i] = types[from];
+            this.parts[i] = parts[from];
+            this.x[i] = x[from];
+            this.y[i] = y[from];
+            this.patrolMin[i] = patrolMin[from];
+            this.patrolMax[i] = patrolMax[from];
+            this.texts[i] = texts[from];
+        }
+        for (int i = 0; i < size; i++) {
+            links[i] = linkIds[order[i]] < 0 ? -1 : indexOf(linkIds[order[i]]);
+        }
+    }
+
+    /**
+     * Reads the {@code Spawns} layer, or returns the built-in table when the map has none.
+     */
+    public static SpawnTable fromMap(TiledMap map) {
+        int mapWidth = map.getProperties().get("width", Integer.class);
+        int mapHeight = map.getProperties().get("height", Integer.class);
+        MapLayer layer = map.getLayers().get(LAYER);
+        if (layer == null) {
+            return legacy(mapWidth, mapHeight);
+        }
+        float tileWidth = map.getProperties().get("tilewidth", Integer.class);
+        float tileHeight = map.getProperties().get("tileheight", Integer.class);
+
+        int count = layer.getObjects().getCount();
+        int[] ids = new int[count];
+        byte[] types = new byte[count];
+        byte[] parts = new byte[count];
+        float[] x = new float[count], y = new float[count];
+        float[] patrolMin = new float[count], patrolMax = new float[count];
+        int[] links = new int[count];
+        String[] texts = new String[count];
+
+        int size = 0;
+        for (MapObject object : layer.getObjects()) {
+            MapProperties properties = object.getProperties();
+            int type = typeOf(properties.get("type"));
+            if (type < 0) {
+                System.err.println("SpawnTable: unknown spawn type " + properties.get("type") + " of object " + properties.get("id"));
+                continue;
+            }
+            // Object positions are in pixels from the bottom-left; spawn at the centre, in tiles
+            float width = properties.get("width", 0f, Float.class);
+            float height = properties.get("height", 0f, Float.class);
+            ids[size] = properties.get("id", size, Integer.class);
+            types[size] = (byte) type;
+            parts[size] = (byte) toInt(properties.get("part"), 0);
+            x[size] = (properties.get("x", 0f, Float.class) + width / 2f) / tileWidth;
+            y[size] = (properties.get("y", 0f, Float.class) + height / 2f) / tileHeight;
+            patrolMin[size] = toFloat(properties.get("patrol_min"), x[size] - DEFAULT_PATROL);
+            patrolMax[size] = toFloat(properties.get("patrol_max"), x[size] + DEFAULT_PATROL);
+            links[size] = objectId(properties.get("door"));
+            Object text = properties.get("text");
+            texts[size] = text != null ? text.toString() : null;
+            size++;
+        }
+        return new SpawnTable(size, ids, types, parts, x, y, patrolMin, patrolMax, links, texts, mapWidth, mapHeight);
+    }
+
+    /**
+     * The enemies that used to be hardcoded for level parts 1-3.
+     */
+    static SpawnTable legacy(int mapWidth, int mapHeight) {
+        float[][] enemies = {
+            // part, x, y, patrol min, patrol max
+            {1, 8, 2, 7, 12}, {1, 15, 2, 14, 18},
+            {2, 5, 5, 3, 8}, {2, 12, 8, 10, 15}, {2, 18, 3, 16, 19},
+            {3, 10, 7, 8, 12}, {3, 5, 10, 3, 7}, {3, 15, 10, 13, 17},
+        };
+        int size = enemies.length;
+        int[] ids = new int[size];
+        byte[] types = new byte[size];
+        byte[] parts = new byte[size];
+        float[] x = new float[size], y = new float[size];
+        float[] patrolMin = new float[size], patrolMax = new float[size];
+        int[] links = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+            types[i] = ENEMY;
+            parts[i] = (byte) enemies[i][0];
+            x[i] = enemies[i][1];
+            y[i] = enemies[i][2];
+            patrolMin[i] = enemies[i][3];
+            patrolMax[i] = enemies[i][4];
+            links[i] = -1;
+        }
+        return new SpawnTable(size, ids, types, parts, x, y, patrolMin, patrolMax, links, new String[size], mapWidth, mapHeight);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getId(int index) { return ids[index]; }
+
+    public byte getType(int index) { return types[index]; }
+
+    /** Level part of the entry, 0 for every part. */
+    public int getPart(int index) { return parts[index]; }
+
+    public float getX(int index) { return x[index]; }
+
+    public float getY(int index) { return y[index]; }
+
+    public float getPatrolMin(int index) { return patrolMin[index]; }
+
+    public float getPatrolMax(int index) { return patrolMax[index]; }
+
+    /** Index of the linked entry, -1 if none. */
+    public int getLink(int index) { return links[index]; }
+
+    /** Note text split into dialogue lines, null if none. */
+    public String[] getTextLines(int index) {
+        return texts[index] == null ? null : texts[index].split("\n");
+    }
+
+    /** True when the entry belongs to the given level part. */
+    public boolean isInPart(int index, int part) {
+        return parts[index] == 0 || parts[index] == part;
+    }
+
+    /**
+     * First entry index of the chunks whose column range is {@code [minChunkX, maxChunkX]} in chunk row {@code chunkY};
+     * entries of a chunk row are contiguous, so {@code [rowStart, rowEnd)} covers them.
+     */
+    public int rowStart(int chunkY, int minChunkX) {
+        return chunkStart[clampY(chunkY) * chunksX + clampX(minChunkX)];
+    }
+
+    /**
+     * End (exclusive) of the entries of chunk row {@code chunkY} up to column {@code maxChunkX}.
+     */
+    public int rowEnd(int chunkY, int maxChunkX) {
+        return chunkStart[clampY(chunkY) * chunksX + clampX(maxChunkX) + 1];
+    }
+
+    public int getChunksX() { return chunksX; }
+
+    public int getChunksY() { return chunksY; }
+
+    private int chunkIndex(float tileX, float tileY) {
+        int cx = clampX((int) Math.floor(tileX / ChunkStreamer.CHUNK_SIZE));
+        int cy = clampY((int) Math.floor(tileY / ChunkStreamer.CHUNK_SIZE));
+        return cx + cy * chunksX;
+    }
+
+    private int clampX(int cx) {
+        return Math.max(0, Math.min(chunksX - 1, cx));
+    }
+
+    private int clampY(int cy) {
+        return Math.max(0, Math.min(chunksY - 1, cy));
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+
+    private static int typeOf(Object type) {
+        if (type == null) return -1;
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            if (TYPE_NAMES[i].equalsIgnoreCase(type.toString())) return i;
+        }
+        return -1;
+    }
+
+    /** Object references are MapObjects once the map is loaded, plain ids in older loaders. */
+    private static int objectId(Object value) {
+        if (value instanceof MapObject) {
+            return ((MapObject) value).getProperties().get("id", -1, Integer.class);
+        }
+        return toInt(value, -1);
+    }
+
+    private static int toInt(Object value, int defaultValue) {
+        if (value instanceof Number) return ((Number) value).intValue();
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static float toFloat(Object value, float defaultValue) {
+        if (value instanceof Number) return ((Number) value).floatValue();
+        if (value == null) return defaultValue;
+        try {
+            return Float.parseFloat(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+
+/**
+ * Collision flags per global tile id, read once from the tileset tile properties
+ * ({@code collides}, {@code one_way}, {@code hazard}, {@code trigger}; bool or "true").
+ * Classifying a cell is a single array lookup.
+ * Maps whose tilesets define none of these properties fall back to the legacy
+ * wall ids on the {@code Walls} layer, or on {@code Ground} when there is no {@code Walls} layer.
+ * <p>
+ * {@code collides} tiles are walls. {@code one_way} walls only stop bodies landing on them from above
+ * (see {@link GameContactListener}). {@code hazard} tiles hurt the player while standing on them, and
+ * stepping onto a {@code trigger} tile completes the level; both are sensors that let bodies through.
+ */
+public final class TileFlags {
+    public static final int COLLIDES = 1;
+    public static final int ONE_WAY = 2;
+    public static final int HAZARD = 4;
+    public static final int TRIGGER = 8;
+
+    /** Wall tiles of the original dungeon tileset, used when a map has no collision properties. */
+    static final int[] LEGACY_WALL_IDS = {15, 16, 17, 18, 19, 20};
+
+    private final byte[] flags;
+    private final boolean legacy;
+
+    TileFlags(byte[] flags, boolean legacy) {
+        this.flags = flags;
+        this.legacy = legacy;
+    }
+
+    /**
+     * Builds the lookup from every tile of every tileset in the map.
+     */
+    public static TileFlags fromMap(TiledMap map) {
+        int maxId = 0;
+        for (TiledMapTileSet tileSet : map.getTileSets()) {
+            for (TiledMapTile tile : tileSet) {
+                maxId = Math.max(maxId, tile.getId());
+            }
+        }
+
+        byte[] flags = new byte[maxId + 1];
+        boolean any = false;
+        for (TiledMapTileSet tileSet : map.getTileSets()) {
+            for (TiledMapTile tile : tileSet) {
+                int value = fromProperties(tile.getProperties());
+                flags[tile.getId()] = (byte) value;
+                any |= value != 0;
+            }
+        }
+        return any ? new TileFlags(flags, false) : legacy();
+    }
+
+    /**
+     * Returns the lookup used for maps without collision properties.
+     */
+    static TileFlags legacy() {
+        byte[] flags = new byte[LEGACY_WALL_IDS[LEGACY_WALL_IDS.length - 1] + 1];
+        for (int id : LEGACY_WALL_IDS) {
+            flags[id] = COLLIDES;
+        }
+        return new TileFlags(flags, true);
+    }
+
+    /**
+     * Returns the flags of a global tile id, 0 for unknown ids.
+     */
+    public int get(int tileId) {
+        return tileId >= 0 && tileId < flags.length ? flags[tileId] : 0;
+    }
+
+    /**
+     * True when the flags come from the legacy wall id list rather than tile properties.
+     */
+    public boolean isLegacy() {
+        return legacy;
+    }
+
+    /**
+     * Classifies every cell of the map in one pass.
+     * With tile properties all tile layers contribute; in legacy mode only {@code Walls} (or {@code Ground}).
+     * @return flags per cell, indexed {@code x + y * width}
+     */
+    public byte[] classify(TiledMap map) {
+        int width = map.getProperties().get("width", Integer.class);
+        int height = map.getProperties().get("height", Integer.class);
+        byte[] cells = new byte[width * height];
+
+        if (legacy) {
+            MapLayer layer = map.getLayers().get("Walls");
+            if (layer == null) layer = map.getLayers().get("Ground");
+            if (layer instanceof TiledMapTileLayer) {
+                classifyLayer((TiledMapTileLayer) layer, cells, width, height);
+            }
+        } else {
+            for (MapLayer layer : map.getLayers()) {
+                if (layer instanceof TiledMapTileLayer) {
+                    classifyLayer((TiledMapTileLayer) layer, cells, width, height);
+                }
+            }
+        }
+        return cells;
+    }
+
+    private void classifyLayer(TiledMapTileLayer layer, byte[] cells, int width, int height) {
+        int layerWidth = Math.min(width, layer.getWidth());
+        int layerHeight = Math.min(height, layer.getHeight());
+        for (int y = 0; y < layerHeight; y++) {
+            for (int x = 0; x < layerWidth; x++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                if (cell != null && cell.getTile() != null) {
+                    cells[x + y * width] |= (byte) get(cell.getTile().getId());
+                }
+            }
+        }
+    }
+
+    static int fromProperties(MapProperties properties) {
+        int value = 0;
+        if (isTrue(properties.get("collides"))) value |= COLLIDES;
+        if (isTrue(properties.get("one_way"))) value |= ONE_WAY;
+        if (isTrue(properties.get("hazard"))) value |= HAZARD;
+        if (isTrue(properties.get("trigger"))) value |= TRIGGER;
+        return value;
+    }
+
+    static boolean isTrue(Object value) {
+        return value != null && (Boolean.TRUE.equals(value) || "true".equalsIgnoreCase(value.toString()));
+    }
+}
@@ -0,0 +1,126 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Base64Coder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * What the player has already resolved in a level: killed enemies, collected pickups and
+ * triggered objects, one bitset per level part and category, indexed by {@link SpawnTable} spawn id.
+ * Consulted before spawning so resolved entities are never instantiated again, and
+ * small enough to be saved as a short Base64 string.
+ */
+public final class WorldState {
+    public static final int KILLED = 0;
+    public static final int COLLECTED = 1;
+    public static final int TRIGGERED = 2;
+    private static final int CATEGORIES = 3;
+
+    /** Bump when the serialized layout changes; older blobs are then ignored. */
+    private static final int VERSION = 1;
+
+    /** Bitsets indexed {@code part * CATEGORIES + category}, null until something is marked. */
+    private final Array<BitSet> sets = new Array<>();
+
+    /**
+     * Returns the category an entity of the given spawn type is recorded under.
+     */
+    public static int categoryOf(byte spawnType) {
+        switch (spawnType) {
+            case SpawnTable.ENEMY:
+                return KILLED;
+            case SpawnTable.SEAL:
+            case SpawnTable.KEY:
+            case SpawnTable.HEALTH:
+                return COLLECTED;
+            default:
+                return TRIGGERED;
+        }
+    }
+
+    public void mark(int part, int category, int spawnId) {
+        int index = part * CATEGORIES + category;
+        if (index >= sets.size) sets.setSize(index + 1);
+        BitSet set = sets.get(index);
+        if (set == null) {
+            set = new BitSet();
+            sets.set(index, set);
+        }
+        set.set(spawnId);
+    }
+
+    public boolean isSet(int part, int category, int spawnId) {
+        int index = part * CATEGORIES + category;
+        BitSet set = index < sets.size ? sets.get(index) : null;
+        return set != null && set.get(spawnId);
+    }
+
+    /**
+     * True when the spawn has been resolved in any category.
+     */
+    public boolean isResolved(int part, int spawnId) {
+        for (int category = 0; category < CATEGORIES; category++) {
+            if (isSet(part, category, spawnId)) return true;
+        }
+        return false;
+    }
+
+    public void clear() {
+        sets.clear();
+    }
+
+    /**
+     * Serializes every non-empty bitset: version, count, then per set its index and bytes.
+     */
+    public String toBase64() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            int count = 0;
+            for (BitSet set : sets) {
+                if (set != null && !set.isEmpty()) count++;
+            }
+            out.writeByte(VERSION);
+            out.writeShort(count);
+            for (int i = 0; i < sets.size; i++) {
+                BitSet set = sets.get(i);
+                if (set == null || set.isEmpty()) continue;
+                byte[] data = set.toByteArray();
+                out.writeShort(i);
+                out.writeShort(data.length);
+                out.write(data);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen with an in-memory stream
+        }
+        return new String(Base64Coder.encode(bytes.toByteArray()));
+    }
+
+    /**
+     * Restores a state written by {@link #toBase64}; returns an empty state for null or unreadable input.
+     */
+    public static WorldState fromBase64(String encoded) {
+        WorldState state = new WorldState();
+        if (encoded == null || encoded.isEmpty()) return state;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64Coder.decode(encoded)))) {
+            if (in.readByte() != VERSION) return state;
+            int count = in.readShort();
+            for (int i = 0; i < count; i++) {
+                int index = in.readShort();
+                byte[] data = new byte[in.readShort()];
+                in.readFully(data);
+                if (index >= state.sets.size) state.sets.setSize(index + 1);
+                state.sets.set(index, BitSet.valueOf(data));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("WorldState: ignoring unreadable save data: " + e.getMessage());
+            state.clear();
+        }
+        return state;
+    }
+}
@@ -1,13 +1,15 @@
 package com.nikita.game.items;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
+import com.nikita.game.GameAssets;
 import com.nikita.game.Player;
 
 public class GameKey extends Item {
-    private Texture texture;
+    private static final String TEXTURE = "items/key.png";
+    private TextureRegion texture;
 
     public GameKey(World world, float x, float y) {
         BodyDef bodyDef = new BodyDef();
@@ -21,7 +23,7 @@ public class GameKey extends Item {
         shape.dispose();
 
         try {
-            texture = new Texture("items/key.png");
+            texture = GameAssets.acquireRegion(TEXTURE);
         } catch (Exception e) {
             System.err.println("Не удалось загрузить текстуру ключа");
             texture = null;
@@ -52,6 +54,9 @@ public class GameKey extends Item {
 
     @Override
     public void dispose() {
-        if (texture != null) texture.dispose();
+        if (texture != null) {
+            GameAssets.releaseRegion(TEXTURE);
+            texture = null;
+        }
     }
 }
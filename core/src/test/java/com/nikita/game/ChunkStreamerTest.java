@@ -0,0 +1,61 @@
+package com.nikita.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ChunkStreamerTest {
+    private static final int C = TileFlags.COLLIDES;
+
+    @Test
+    public void rectangleInsideOneChunkKeepsEveryEdge() {
+        int[][] chunks = ChunkStreamer.clip(new int[]{2, 3, 4, 5, C}, 2, 1);
+
+        assertArrayEquals(new int[]{2, 3, 4, 5, C, 0}, chunks[0]);
+        assertEquals(0, chunks[1].length);
+    }
+
+    @Test
+    public void horizontalCutsAreMarkedOnBothSides() {
+        // 10..40 crosses the borders at 16 and 32
+        int[][] chunks = ChunkStreamer.clip(new int[]{10, 0, 30, 1, C}, 3, 1);
+
+        assertArrayEquals(new int[]{10, 0, 6, 1, C, ChunkStreamer.CLIPPED_RIGHT}, chunks[0]);
+        assertArrayEquals(new int[]{16, 0, 16, 1, C, ChunkStreamer.CLIPPED_LEFT | ChunkStreamer.CLIPPED_RIGHT}, chunks[1]);
+        assertArrayEquals(new int[]{32, 0, 8, 1, C, ChunkStreamer.CLIPPED_LEFT}, chunks[2]);
+    }
+
+    @Test
+    public void verticalCutsAreMarkedOnBothSides() {
+        int[][] chunks = ChunkStreamer.clip(new int[]{0, 4, 1, 20, TileFlags.HAZARD}, 1, 2);
+
+        assertArrayEquals(new int[]{0, 4, 1, 12, TileFlags.HAZARD, ChunkStreamer.CLIPPED_TOP}, chunks[0]);
+        assertArrayEquals(new int[]{0, 16, 1, 8, TileFlags.HAZARD, ChunkStreamer.CLIPPED_BOTTOM}, chunks[1]);
+    }
+
+    @Test
+    public void rectangleOnAChunkCornerIsCutFourWays() {
+        int[][] chunks = ChunkStreamer.clip(new int[]{15, 15, 2, 2, C}, 2, 2);
+
+        assertArrayEquals(new int[]{15, 15, 1, 1, C,
+            ChunkStreamer.CLIPPED_RIGHT | ChunkStreamer.CLIPPED_TOP}, chunks[0]);
+        assertArrayEquals(new int[]{16, 15, 1, 1, C,
+            ChunkStreamer.CLIPPED_LEFT | ChunkStreamer.CLIPPED_TOP}, chunks[1]);
+        assertArrayEquals(new int[]{15, 16, 1, 1, C,
+            ChunkStreamer.CLIPPED_RIGHT | ChunkStreamer.CLIPPED_BOTTOM}, chunks[2]);
+        assertArrayEquals(new int[]{16, 16, 1, 1, C,
+            ChunkStreamer.CLIPPED_LEFT | ChunkStreamer.CLIPPED_BOTTOM}, chunks[3]);
+    }
+
+    @Test
+    public void rectanglesEndingOnABorderAreNotCut() {
+        int[][] chunks = ChunkStreamer.clip(new int[]{
+            0, 0, 16, 1, C,
+            16, 0, 16, 1, C,
+        }, 2, 1);
+
+        assertArrayEquals(new int[]{0, 0, 16, 1, C, 0}, chunks[0]);
+        assertArrayEquals(new int[]{16, 0, 16, 1, C, 0}, chunks[1]);
+    }
+}
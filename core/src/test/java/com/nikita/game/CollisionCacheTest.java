@@ -0,0 +1,122 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CollisionCacheTest {
+    private static final int[] RECTS = {
+        0, 0, 40, 1, TileFlags.COLLIDES,
+        3, 7, 1, 12, TileFlags.ONE_WAY,
+        1000, 2000, 300, 4, TileFlags.TRIGGER,
+    };
+
+    /** Inline tileset whose image is never opened; rows are listed top-down as in Tiled. */
+    private static final String ROOM = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<map version=\"1.10\" orientation=\"orthogonal\" renderorder=\"right-down\" width=\"4\" height=\"3\""
+        + " tilewidth=\"16\" tileheight=\"16\" infinite=\"0\">\n"
+        + " <tileset firstgid=\"1\" name=\"tiles\" tilewidth=\"16\" tileheight=\"16\" tilecount=\"2\" columns=\"2\">\n"
+        + "  <image source=\"tiles.png\" width=\"32\" height=\"16\"/>\n"
+        + "  <tile id=\"1\"><properties><property name=\"collides\" type=\"bool\" value=\"true\"/></properties></tile>\n"
+        + " </tileset>\n"
+        + " <layer id=\"1\" name=\"Ground\" width=\"4\" height=\"3\">\n"
+        + "  <data encoding=\"csv\">\n2,2,2,2,\n1,1,1,2,\n1,1,1,2\n</data>\n"
+        + " </layer>\n"
+        + "</map>\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private com.badlogic.gdx.Files previousFiles;
+    private File map;
+
+    @Before
+    public void setUp() throws IOException {
+        previousFiles = Gdx.files;
+        Gdx.files = new HeadlessFiles(); // Internal paths are plain files, absolute ones included
+        map = new File(folder.getRoot(), "level.tmx"); // Only its cache is read
+    }
+
+    @After
+    public void tearDown() {
+        Gdx.files = previousFiles;
+    }
+
+    @Test
+    public void cachePathReplacesTheExtension() {
+        assertEquals("maps/level_2.col", CollisionCache.cachePath("maps/level_2.tmx"));
+        assertEquals("maps/level.col", CollisionCache.cachePath("maps/level"));
+    }
+
+    @Test
+    public void rectanglesSurviveTheRoundTrip() throws IOException {
+        bake();
+        assertArrayEquals(RECTS, CollisionCache.load(map.getPath(), 2000, 2000));
+    }
+
+    @Test
+    public void missingCacheIsIgnored() {
+        assertNull(CollisionCache.load(map.getPath(), 2000, 2000));
+    }
+
+    @Test
+    public void otherMapSizeIsIgnored() throws IOException {
+        bake();
+        assertNull(CollisionCache.load(map.getPath(), 2000, 1999));
+        assertNull(CollisionCache.load(map.getPath(), 1999, 2000));
+    }
+
+    @Test
+    public void otherVersionIsIgnored() throws IOException {
+        File cache = bake();
+        byte[] bytes = Files.readAllBytes(cache.toPath());
+        bytes[7]++; // Low byte of the version after the 4-byte magic
+        Files.write(cache.toPath(), bytes);
+        assertNull(CollisionCache.load(map.getPath(), 2000, 2000));
+    }
+
+    @Test
+    public void truncatedCacheIsIgnored() throws IOException {
+        File cache = bake();
+        byte[] bytes = Files.readAllBytes(cache.toPath());
+        Files.write(cache.toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+        assertNull(CollisionCache.load(map.getPath(), 2000, 2000));
+    }
+
+    @Test
+    public void bakerMatchesTheTileFlagsOfTheMap() throws IOException {
+        File assets = folder.newFolder("assets"), out = folder.newFolder("out");
+        assertTrue(new File(assets, "maps").mkdir());
+        Files.write(new File(assets, "maps/room.tmx").toPath(), ROOM.getBytes(StandardCharsets.UTF_8));
+        CollisionBaker.main(new String[]{assets.getPath(), out.getPath()});
+
+        // Tile 2 collides: the right column and the top row, merged upward first
+        assertArrayEquals(new int[]{3, 0, 1, 3, TileFlags.COLLIDES, 0, 2, 3, 1, TileFlags.COLLIDES},
+            CollisionCache.load(new File(out, "maps/room.tmx").getPath(), 4, 3));
+    }
+
+    private File bake() throws IOException {
+        File cache = new File(CollisionCache.cachePath(map.getPath()));
+        try (OutputStream out = new FileOutputStream(cache)) {
+            CollisionCache.write(out, 2000, 2000, RECTS);
+        }
+        return cache;
+    }
+}
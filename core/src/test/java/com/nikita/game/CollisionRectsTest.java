@@ -0,0 +1,80 @@
+package com.nikita.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CollisionRectsTest {
+
+    @Test
+    public void solidBlockBecomesOneRectangle() {
+        boolean[] solid = grid(
+            "....",
+            ".##.",
+            ".##.",
+            ".##.");
+        assertArrayEquals(new int[]{1, 1, 2, 3}, CollisionRects.merge(solid, 4, 4));
+    }
+
+    @Test
+    public void everySolidCellIsCoveredExactlyOnce() {
+        String[] rows = {
+            "#####",
+            "#...#",
+            "#.#.#",
+            "##..#",
+            "#####",
+        };
+        boolean[] solid = grid(rows);
+        int[] rects = CollisionRects.merge(solid, 5, 5);
+
+        int[] covered = new int[solid.length];
+        for (int i = 0; i < rects.length; i += 4) {
+            for (int y = rects[i + 1]; y < rects[i + 1] + rects[i + 3]; y++) {
+                for (int x = rects[i]; x < rects[i] + rects[i + 2]; x++) {
+                    covered[x + y * 5]++;
+                }
+            }
+        }
+        for (int i = 0; i < solid.length; i++) {
+            assertEquals("cell " + i, solid[i] ? 1 : 0, covered[i]);
+        }
+        assertTrue("fewer rectangles than solid tiles", rects.length / 4 < 18);
+    }
+
+    @Test
+    public void kindsAreMergedSeparately() {
+        int c = TileFlags.COLLIDES, o = TileFlags.ONE_WAY, h = TileFlags.HAZARD;
+        byte[] cells = {
+            (byte) c, (byte) c, (byte) o, (byte) o,
+            (byte) (c | o), 0, (byte) h, 0,
+        };
+        int[] rects = CollisionRects.build(cells, 4, 2);
+
+        assertArrayEquals(new int[]{
+            0, 0, 2, 1, c, // The colliding one-way cell counts as a wall only
+            0, 1, 1, 1, c,
+            2, 0, 2, 1, o,
+            2, 1, 1, 1, h,
+        }, rects);
+    }
+
+    @Test
+    public void emptyMapHasNoRectangles() {
+        assertEquals(0, CollisionRects.build(new byte[12], 4, 3).length);
+    }
+
+    // Rows are listed from y = 0 upwards; '#' is solid
+    static boolean[] grid(String... rows) {
+        int width = rows[0].length();
+        boolean[] solid = new boolean[width * rows.length];
+        for (int y = 0; y < rows.length; y++) {
+            for (int x = 0; x < width; x++) {
+                solid[x + y * width] = rows[y].charAt(x) == '#';
+            }
+        }
+        return solid;
+    }
+}
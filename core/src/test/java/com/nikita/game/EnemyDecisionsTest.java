@@ -0,0 +1,150 @@
+package com.nikita.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EnemyDecisionsTest {
+    private static final int ENEMIES = 1500;
+    private static final int MAP = 64;
+
+    @Test
+    public void parallelDecisionsMatchTheSerialOnes() {
+        FlowField field = openField();
+        EnemyDecisions serial = new EnemyDecisions(ENEMIES), parallel = new EnemyDecisions(ENEMIES);
+        Random random = new Random(7);
+        fill(serial, random);
+        copy(serial, parallel);
+
+        // Several ticks with different batch sizes, so the kept task tree is reused, grown and partly idle
+        int[] batchSizes = {ENEMIES, 5 * EnemyDecisions.BATCH + 17, ENEMIES - 3, 2 * EnemyDecisions.BATCH};
+        for (int batchSize : batchSizes) {
+            float playerX = random.nextFloat() * MAP, playerY = random.nextFloat() * MAP;
+            field.update(playerX, playerY);
+            pickBatch(serial, batchSize, random);
+            System.arraycopy(serial.batch, 0, parallel.batch, 0, batchSize);
+            parallel.batchCount = batchSize;
+
+            serial.decide(playerX, playerY, field, false);
+            parallel.decide(playerX, playerY, field, true);
+
+            assertArrayEquals(serial.velocityX, parallel.velocityX, 0f);
+            assertArrayEquals(serial.velocityY, parallel.velocityY, 0f);
+            assertArrayEquals(serial.state, parallel.state);
+            assertArrayEquals(serial.direction, parallel.direction);
+            assertArrayEquals(serial.changed, parallel.changed);
+        }
+    }
+
+    @Test
+    public void onlyBatchedSlotsAreDecided() {
+        EnemyDecisions decisions = new EnemyDecisions(3);
+        for (int slot = 0; slot < 3; slot++) {
+            place(decisions, slot, 10f, 1f);
+        }
+        decisions.batch[0] = 1;
+        decisions.batchCount = 1;
+
+        decisions.decide(50f, 50f, null, true);
+        assertEquals(EnemyDecisions.SPEED, decisions.velocityX[1], 0f);
+        assertTrue(decisions.changed[1]);
+        assertEquals(0f, decisions.velocityX[0], 0f);
+        assertEquals(0f, decisions.velocityX[2], 0f);
+    }
+
+    @Test
+    public void patrolTurnsAtTheEndOfItsRange() {
+        EnemyDecisions decisions = new EnemyDecisions(1);
+        place(decisions, 0, 12.5f, 1f); // Past patrolMax
+        decisions.velocityX[0] = EnemyDecisions.SPEED;
+        decisions.batchCount = 1;
+
+        decisions.decide(50f, 50f, null, false);
+        assertEquals(EnemyDecisions.SPEED, decisions.velocityX[0], 0f); // Finishes this step
+        assertEquals(-1, decisions.direction[0]);
+        assertFalse(decisions.changed[0]);
+
+        decisions.decide(50f, 50f, null, false);
+        assertEquals(-EnemyDecisions.SPEED, decisions.velocityX[0], 0f);
+        assertTrue(decisions.changed[0]);
+    }
+
+    @Test
+    public void chaseFollowsTheFlowFieldAndStopsFarAway() {
+        FlowField field = openField();
+        field.update(20.5f, 10.5f);
+        EnemyDecisions decisions = new EnemyDecisions(1);
+        place(decisions, 0, 18.5f, 12.5f); // Up and to the left of the player
+        decisions.batchCount = 1;
+
+        decisions.decide(20.5f, 10.5f, field, false);
+        assertEquals(EnemyDecisions.CHASE, decisions.state[0]);
+        float diagonal = (float) (1 / Math.sqrt(2)) * EnemyDecisions.SPEED;
+        assertEquals(diagonal, decisions.velocityX[0], 1e-6f);
+        assertEquals(-diagonal, decisions.velocityY[0], 1e-6f);
+
+        decisions.x[0] = 40f; // Beyond CHASE_STOP
+        decisions.decide(20.5f, 10.5f, field, false);
+        assertEquals(EnemyDecisions.PATROL, decisions.state[0]);
+        assertEquals(0f, decisions.velocityY[0], 0f);
+    }
+
+    private static FlowField openField() {
+        return new FlowField(new boolean[MAP * MAP], MAP, MAP, 1f, MAP * 2);
+    }
+
+    private static void place(EnemyDecisions decisions, int slot, float x, float y) {
+        decisions.x[slot] = x;
+        decisions.y[slot] = y;
+        decisions.patrolMin[slot] = x - 4f;
+        decisions.patrolMax[slot] = 12f;
+        decisions.direction[slot] = 1;
+        decisions.state[slot] = EnemyDecisions.PATROL;
+    }
+
+    // Enemies all over the map: some in chase range of any player position, some chasing already
+    private static void fill(EnemyDecisions decisions, Random random) {
+        for (int slot = 0; slot < ENEMIES; slot++) {
+            decisions.x[slot] = random.nextFloat() * MAP;
+            decisions.y[slot] = random.nextFloat() * MAP;
+            decisions.velocityX[slot] = random.nextBoolean() ? EnemyDecisions.SPEED : -EnemyDecisions.SPEED;
+            decisions.velocityY[slot] = random.nextInt(3) - 1;
+            decisions.patrolMin[slot] = decisions.x[slot] - random.nextFloat() * 4f;
+            decisions.patrolMax[slot] = decisions.x[slot] + random.nextFloat() * 4f;
+            decisions.state[slot] = random.nextInt(4) == 0 ? EnemyDecisions.CHASE : EnemyDecisions.PATROL;
+            decisions.direction[slot] = (byte) (random.nextBoolean() ? 1 : -1);
+        }
+    }
+
+    private static void copy(EnemyDecisions from, EnemyDecisions to) {
+        System.arraycopy(from.x, 0, to.x, 0, ENEMIES);
+        System.arraycopy(from.y, 0, to.y, 0, ENEMIES);
+        System.arraycopy(from.velocityX, 0, to.velocityX, 0, ENEMIES);
+        System.arraycopy(from.velocityY, 0, to.velocityY, 0, ENEMIES);
+        System.arraycopy(from.patrolMin, 0, to.patrolMin, 0, ENEMIES);
+        System.arraycopy(from.patrolMax, 0, to.patrolMax, 0, ENEMIES);
+        System.arraycopy(from.state, 0, to.state, 0, ENEMIES);
+        System.arraycopy(from.direction, 0, to.direction, 0, ENEMIES);
+    }
+
+    // A random subset of the slots in random order, as the scheduler's round-robin walk produces
+    private static void pickBatch(EnemyDecisions decisions, int size, Random random) {
+        int[] slots = new int[ENEMIES];
+        for (int i = 0; i < ENEMIES; i++) {
+            slots[i] = i;
+        }
+        for (int i = 0; i < size; i++) {
+            int j = i + random.nextInt(ENEMIES - i);
+            int swap = slots[i];
+            slots[i] = slots[j];
+            slots[j] = swap;
+            decisions.batch[i] = slots[i];
+        }
+        decisions.batchCount = size;
+    }
+}
@@ -0,0 +1,51 @@
+package com.nikita.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FixedStepperTest {
+    // Binary fractions, so the accumulator stays exact
+    private static final float STEP = 0.25f;
+
+    @Test
+    public void timeIsConsumedInWholeSteps() {
+        FixedStepper stepper = new FixedStepper(STEP, 3);
+        assertEquals(0, stepper.advance(0.125f));
+        assertEquals(0.5f, stepper.getAlpha(), 0f);
+        assertEquals(1, stepper.advance(0.25f));
+        assertEquals(0.5f, stepper.getAlpha(), 0f);
+        assertEquals(2, stepper.advance(0.375f));
+        assertEquals(0f, stepper.getAlpha(), 0f);
+    }
+
+    @Test
+    public void backlogBeyondMaxStepsIsDropped() {
+        FixedStepper stepper = new FixedStepper(STEP, 3);
+        assertEquals(3, stepper.advance(2.125f));
+        assertEquals(0f, stepper.getAlpha(), 0f);
+        assertEquals(0, stepper.advance(0.125f)); // Nothing of the spike is left over
+    }
+
+    @Test
+    public void negativeFramesAndResetAddNothing() {
+        FixedStepper stepper = new FixedStepper(STEP, 3);
+        assertEquals(0, stepper.advance(-1f));
+        assertEquals(0f, stepper.getAlpha(), 0f);
+        stepper.advance(0.125f);
+        stepper.reset();
+        assertEquals(0f, stepper.getAlpha(), 0f);
+        assertEquals(0, stepper.advance(0.125f));
+    }
+
+    @Test
+    public void defaultsRunAtSixtyHertz() {
+        FixedStepper stepper = new FixedStepper();
+        assertEquals(FixedStepper.STEP, stepper.getStep(), 0f);
+        int steps = 0;
+        for (int frame = 0; frame < 144; frame++) {
+            steps += stepper.advance(1f / 144f);
+        }
+        assertEquals(60, steps, 1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlowFieldTest {
+    private static final float EPSILON = 1e-6f;
+    private static final float DIAGONAL = (float) (1 / Math.sqrt(2));
+    private static final float ENEMY_WIDTH = 2 * EnemyStore.HALF_WIDTH, ENEMY_HEIGHT = 2 * EnemyStore.HALF_HEIGHT;
+
+    // A wall across the middle row; the only ways around it are the left and right columns
+    private static final String[] MAZE = {
+        ".....", // y = 0
+        ".###.", // y = 1
+        ".....", // y = 2
+    };
+
+    @Test
+    public void distancesFollowThePathAroundWalls() {
+        FlowField field = field(MAZE, 100);
+        assertTrue(field.update(0.5f, 2.5f));
+
+        assertEquals(0, field.getDistance(0, 2));
+        assertEquals(4, field.getDistance(4, 2));
+        assertEquals(2, field.getDistance(0, 0));
+        assertEquals(4, field.getDistance(2, 0));
+        assertEquals(6, field.getDistance(4, 0));
+        assertEquals(-1, field.getDistance(2, 1)); // Wall
+        assertEquals(-1, field.getDistance(5, 0)); // Outside the map
+    }
+
+    @Test
+    public void directionsLeadTowardsTheTarget() {
+        FlowField field = field(MAZE, 100);
+        field.update(0.5f, 2.5f);
+        Vector2 out = new Vector2();
+
+        assertTrue(field.getDirection(3.5f, 2.5f, out));
+        assertDirection(-1, 0, out);
+        assertTrue(field.getDirection(0.5f, 0.5f, out));
+        assertDirection(0, 1, out);
+        assertFalse(field.getDirection(0.5f, 2.5f, out)); // Already on the target tile
+        assertFalse(field.getDirection(2.5f, 1.5f, out)); // Inside the wall
+        assertFalse(field.getDirection(-0.5f, 0.5f, out));
+    }
+
+    @Test
+    public void diagonalStepsDoNotCutWallCorners() {
+        FlowField field = field(MAZE, 100);
+        field.update(0.5f, 2.5f);
+        Vector2 out = new Vector2();
+
+        // (0, 1) is diagonally closer, but the step would clip the wall at (1, 1)
+        assertTrue(field.getDirection(1.5f, 0.5f, out));
+        assertDirection(-1, 0, out);
+    }
+
+    @Test
+    public void diagonalStepsAreTakenInTheOpen() {
+        FlowField field = field(new String[]{"...", "...", "..."}, 100);
+        field.update(0.5f, 0.5f);
+        Vector2 out = new Vector2();
+
+        assertTrue(field.getDirection(1.5f, 1.5f, out));
+        assertDirection(-DIAGONAL, -DIAGONAL, out);
+        assertEquals(2, field.getDistance(1, 1)); // Distances stay orthogonal steps
+    }
+
+    @Test
+    public void searchStopsAtMaxDistance() {
+        FlowField field = field(MAZE, 3);
+        field.update(0.5f, 2.5f);
+        Vector2 out = new Vector2();
+
+        assertEquals(3, field.getDistance(3, 2));
+        assertEquals(-1, field.getDistance(4, 2));
+        assertEquals(-1, field.getDistance(2, 0));
+        assertFalse(field.getDirection(2.5f, 0.5f, out));
+    }
+
+    @Test
+    public void newTargetClearsThePreviousSearch() {
+        FlowField field = field(MAZE, 3);
+        field.update(0.5f, 2.5f);
+        assertEquals(1, field.getDistance(1, 2));
+
+        assertTrue(field.update(4.5f, 0.5f));
+        assertEquals(0, field.getDistance(4, 0));
+        assertEquals(3, field.getDistance(3, 2));
+        // Reached by the first search, out of range of the second
+        assertEquals(-1, field.getDistance(1, 2));
+        assertEquals(-1, field.getDistance(0, 2));
+        assertFalse(field.getDirection(1.5f, 2.5f, new Vector2()));
+    }
+
+    @Test
+    public void sameTileDoesNotSearchAgain() {
+        FlowField field = field(MAZE, 100);
+        assertTrue(field.update(0.5f, 2.5f));
+        assertFalse(field.update(0.9f, 2.1f));
+        assertTrue(field.update(1.1f, 2.1f));
+    }
+
+    @Test
+    public void onlyCollidingRectanglesBlock() {
+        int[] rects = {
+            1, 0, 2, 1, TileFlags.COLLIDES,
+            0, 1, 3, 1, TileFlags.ONE_WAY,
+            2, 2, 5, 5, TileFlags.COLLIDES, // Clipped to the map
+        };
+        boolean[] blocked = FlowField.blockedCells(rects, 3, 3, 1f, 1f);
+
+        assertTrue(blocked[1] && blocked[2]);
+        assertFalse(blocked[0]);
+        assertFalse(blocked[3] || blocked[4] || blocked[5]);
+        assertTrue(blocked[8]);
+        assertFalse(blocked[6] || blocked[7]);
+    }
+
+    @Test
+    public void enemySizedAgentsNeedTwoFreeRowsAndOneColumn() {
+        int[] rects = {
+            0, 0, 8, 1, TileFlags.COLLIDES, // Floor
+            2, 2, 2, 1, TileFlags.COLLIDES, // Low ceiling: one free row under it
+            6, 3, 2, 1, TileFlags.COLLIDES, // High ceiling: two free rows under it
+            4, 5, 1, 1, TileFlags.COLLIDES, // Pillars one free column apart
+            6, 5, 1, 1, TileFlags.COLLIDES,
+        };
+        boolean[] blocked = FlowField.blockedCells(rects, 8, 7, ENEMY_WIDTH, ENEMY_HEIGHT);
+
+        assertFalse(blocked[1 + 8]);     // Open floor
+        assertTrue(blocked[2 + 8]);      // Under the low ceiling the body would hit it
+        assertTrue(blocked[3 + 8]);
+        assertTrue(blocked[2 + 2 * 8]);  // The ceiling itself
+        assertFalse(blocked[6 + 8]);     // 2.2 tiles of room for a 1.8 body
+        assertTrue(blocked[6 + 2 * 8]);  // But not from the row above
+        assertFalse(blocked[5 + 5 * 8]); // A 0.8 body fits between the pillars
+        assertFalse(blocked[5 + 4 * 8]);
+        assertTrue(blocked[4 + 4 * 8]);  // Below a pillar
+    }
+
+    @Test
+    public void agentsAreLookedUpByTheirLowestTile() {
+        // Two free rows over a floor; the body of a standing enemy reaches into the second
+        boolean[] blocked = FlowField.blockedCells(new int[]{0, 0, 4, 1, TileFlags.COLLIDES, 0, 3, 4, 1, TileFlags.COLLIDES},
+            4, 4, ENEMY_WIDTH, ENEMY_HEIGHT);
+        FlowField field = new FlowField(blocked, 4, 4, ENEMY_HEIGHT, 100);
+        float standing = 1f - ChunkStreamer.WALL_INSET + EnemyStore.HALF_HEIGHT; // Feet on the floor's inset top
+
+        assertTrue(field.update(0.5f, standing));
+        assertEquals(0, field.getDistance(0, 1));
+        Vector2 out = new Vector2();
+        assertTrue(field.getDirection(3.5f, standing, out));
+        assertDirection(-1, 0, out);
+        assertEquals(-1, field.getDistance(0, 2)); // A body standing in row 2 would be in the top wall
+    }
+
+    // Rows are listed from y = 0 upwards; '#' is blocked
+    private static FlowField field(String[] rows, int maxDistance) {
+        int width = rows[0].length(), height = rows.length;
+        boolean[] blocked = new boolean[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                blocked[x + y * width] = rows[y].charAt(x) == '#';
+            }
+        }
+        return new FlowField(blocked, width, height, 1f, maxDistance);
+    }
+
+    private static void assertDirection(float x, float y, Vector2 actual) {
+        assertEquals(x, actual.x, EPSILON);
+        assertEquals(y, actual.y, EPSILON);
+    }
+}
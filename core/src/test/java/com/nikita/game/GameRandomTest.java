@@ -0,0 +1,68 @@
+package com.nikita.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameRandomTest {
+
+    @Test
+    public void sameSeedGivesTheSameNumbers() {
+        GameRandom a = GameRandom.forStream(7, GameRandom.AI);
+        GameRandom b = GameRandom.forStream(7, GameRandom.AI);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a.nextLong(), b.nextLong());
+        }
+    }
+
+    @Test
+    public void streamsOfOneSeedAreIndependent() {
+        GameRandom ai = GameRandom.forStream(7, GameRandom.AI);
+        GameRandom vfx = GameRandom.forStream(7, GameRandom.VFX);
+        long[] expected = new long[50];
+        for (int i = 0; i < expected.length; i++) expected[i] = ai.nextLong();
+
+        // Drawing effects numbers in between must not shift the AI's choices
+        GameRandom replayed = GameRandom.forStream(7, GameRandom.AI);
+        for (int i = 0; i < expected.length; i++) {
+            vfx.nextFloat();
+            assertEquals(expected[i], replayed.nextLong());
+        }
+        assertNotEquals(GameRandom.forStream(7, GameRandom.AI).nextLong(), GameRandom.forStream(7, GameRandom.COMBAT).nextLong());
+        assertNotEquals(GameRandom.forStream(7, GameRandom.AI).nextLong(), GameRandom.forStream(8, GameRandom.AI).nextLong());
+    }
+
+    @Test
+    public void splitStreamsDiffer() {
+        GameRandom parent = new GameRandom(1);
+        GameRandom first = parent.split();
+        GameRandom second = parent.split();
+        assertNotEquals(first.nextLong(), second.nextLong());
+    }
+
+    @Test
+    public void drawsStayInRange() {
+        GameRandom random = new GameRandom(3);
+        int[] counts = new int[5];
+        for (int i = 0; i < 10_000; i++) {
+            counts[random.nextInt(5)]++;
+            float f = random.nextFloat();
+            assertTrue(f >= 0f && f < 1f);
+            float ranged = random.nextFloat(-2f, 2f);
+            assertTrue(ranged >= -2f && ranged < 2f);
+        }
+        for (int count : counts) {
+            assertTrue("roughly uniform: " + count, count > 1500 && count < 2500);
+        }
+        assertTrue(random.chance(1f));
+        assertFalse(random.chance(0f));
+    }
+
+    @Test
+    public void newSeedsDiffer() {
+        assertNotEquals(GameRandom.newSeed(), GameRandom.newSeed());
+    }
+}
@@ -0,0 +1,101 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InputLogTest {
+    private static final int[] MASKS = {
+        0, 0, InputActions.LEFT, InputActions.LEFT, InputActions.LEFT,
+        InputActions.LEFT | InputActions.ATTACK, 0, 0, 0, 0,
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replayReturnsTheRecordedMasks() throws Exception {
+        FileHandle file = record(MASKS);
+
+        InputLog replay = InputLog.replay(file);
+        assertTrue(replay.isReplay());
+        assertEquals("maps/level_1.tmx", replay.getTarget());
+        assertEquals(-42L, replay.getSeed());
+        assertEquals("part=2;hp=3", replay.getStartState());
+        for (int tick = 0; tick < MASKS.length; tick++) {
+            assertFalse(replay.isFinished());
+            // Live input is ignored while replaying
+            assertEquals("tick " + tick, MASKS[tick], replay.next(InputActions.JUMP));
+        }
+        assertTrue(replay.isFinished());
+        assertEquals(0, replay.next(InputActions.JUMP));
+    }
+
+    @Test
+    public void recordingPassesInputThrough() throws Exception {
+        InputLog log = InputLog.record(new FileHandle(folder.newFile()), "boss", 1);
+        log.start("");
+        assertEquals(InputActions.UP, log.next(InputActions.UP));
+        assertEquals(1, log.getTick());
+        log.close();
+    }
+
+    @Test
+    public void longPausesBetweenChangesRoundTrip() throws Exception {
+        int[] masks = new int[1000];
+        Arrays.fill(masks, 300, 1000, InputActions.RIGHT); // A tick delta that needs a two-byte varint
+        InputLog replay = InputLog.replay(record(masks));
+        for (int tick = 0; tick < masks.length; tick++) {
+            assertEquals("tick " + tick, masks[tick], replay.next(0));
+        }
+        assertTrue(replay.isFinished());
+    }
+
+    @Test
+    public void logWithoutEndEntryReplaysUpToItsLastChange() throws Exception {
+        FileHandle file = record(MASKS);
+        byte[] bytes = file.readBytes();
+        file.writeBytes(Arrays.copyOf(bytes, bytes.length - 2), false); // Drop the closing entry
+
+        InputLog replay = InputLog.replay(file);
+        for (int tick = 0; tick <= 6; tick++) {
+            assertEquals("tick " + tick, MASKS[tick], replay.next(0));
+        }
+        assertTrue(replay.isFinished());
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void truncatedHeaderIsRejected() throws Exception {
+        FileHandle file = record(MASKS);
+        file.writeBytes(Arrays.copyOf(file.readBytes(), 10), false);
+        InputLog.replay(file);
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void otherVersionIsRejected() throws Exception {
+        FileHandle file = record(MASKS);
+        byte[] bytes = file.readBytes();
+        bytes[7]++; // Low byte of the version after the 4-byte magic
+        file.writeBytes(bytes, false);
+        InputLog.replay(file);
+    }
+
+    private FileHandle record(int[] masks) throws Exception {
+        FileHandle file = new FileHandle(folder.newFile());
+        InputLog log = InputLog.record(file, "maps/level_1.tmx", -42L);
+        log.start("part=2;hp=3");
+        for (int mask : masks) {
+            assertEquals(mask, log.next(mask));
+        }
+        log.close();
+        return file;
+    }
+}
@@ -0,0 +1,140 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class InputQueueTest {
+    private Input previousInput;
+    private TestInput input;
+
+    @Before
+    public void setUp() {
+        previousInput = Gdx.input;
+        Gdx.input = input = new TestInput();
+        InputQueue.install();
+    }
+
+    @After
+    public void tearDown() {
+        Gdx.input = previousInput;
+    }
+
+    @Test
+    public void tapInsideOneTickIsSeenExactlyOnce() {
+        InputQueue.Reader reader = InputQueue.reader();
+        key(100, Input.Keys.A, true);
+        key(200, Input.Keys.A, false);
+
+        InputActions tick = reader.next(1000);
+        assertTrue(tick.isPressed(InputActions.LEFT));
+        assertFalse(tick.isHeld(InputActions.LEFT)); // Released again before the tick ended
+        assertSame(InputActions.NONE, reader.next(2000));
+    }
+
+    @Test
+    public void eventsAfterTheTickStayQueued() {
+        InputQueue.Reader reader = InputQueue.reader();
+        key(100, Input.Keys.D, true);
+        key(500, Input.Keys.J, true);
+
+        InputActions first = reader.next(300);
+        assertTrue(first.isPressed(InputActions.RIGHT));
+        assertTrue(first.isHeld(InputActions.RIGHT));
+        assertFalse(first.isPressed(InputActions.JUMP));
+
+        InputActions second = reader.next(600);
+        assertTrue(second.isPressed(InputActions.JUMP));
+        assertFalse(second.isPressed(InputActions.RIGHT));
+        assertEquals(InputActions.RIGHT | InputActions.JUMP, second.getHeld());
+    }
+
+    @Test
+    public void readersKeepTheirOwnPosition() {
+        InputQueue.Reader simulation = InputQueue.reader();
+        InputQueue.Reader menu = InputQueue.reader();
+        key(100, Input.Keys.E, true);
+
+        assertTrue(simulation.next(1000).isPressed(InputActions.INTERACT));
+        assertTrue(menu.next(1000).isPressed(InputActions.INTERACT));
+    }
+
+    @Test
+    public void newReaderStartsWithTheHeldKeys() {
+        key(100, Input.Keys.W, true);
+        InputQueue.Reader reader = InputQueue.reader();
+
+        InputActions tick = reader.next(1000);
+        assertTrue(tick.isHeld(InputActions.UP));
+        assertFalse(tick.isPressed(InputActions.UP));
+    }
+
+    @Test
+    public void readerFarBehindResyncsItsHeldKeys() {
+        InputQueue.Reader reader = InputQueue.reader();
+        key(1, Input.Keys.S, true);
+        for (int i = 0; i < 300; i++) { // Far more events than the queue keeps
+            key(2 + i, Input.Keys.E, i % 2 == 0);
+        }
+        key(400, Input.Keys.LEFT, true);
+
+        InputActions tick = reader.next(1000);
+        // The overwritten presses are lost, but what is held now is current
+        assertEquals(InputActions.DOWN | InputActions.LEFT, tick.getHeld());
+        assertEquals(0, tick.getPressed());
+
+        key(1100, Input.Keys.J, true);
+        assertTrue(reader.next(1200).isPressed(InputActions.JUMP));
+    }
+
+    @Test
+    public void clicksCarryTheirPosition() {
+        InputQueue.Reader reader = InputQueue.reader();
+        input.time = 100;
+        input.processor.touchDown(12, 34, 0, Input.Buttons.LEFT);
+
+        InputActions tick = reader.next(1000);
+        assertTrue(tick.isPressed(InputActions.CLICK));
+        assertEquals(12, tick.getClickX());
+        assertEquals(34, tick.getClickY());
+    }
+
+    private void key(long time, int keycode, boolean down) {
+        input.time = time;
+        if (down) {
+            input.processor.keyDown(keycode);
+        } else {
+            input.processor.keyUp(keycode);
+        }
+    }
+
+    // Headless input that keeps the installed processor and reports a chosen event time
+    private static final class TestInput extends MockInput {
+        InputProcessor processor;
+        long time;
+
+        @Override
+        public void setInputProcessor(InputProcessor processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public InputProcessor getInputProcessor() {
+            return processor;
+        }
+
+        @Override
+        public long getCurrentEventTime() {
+            return time;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.nikita.game;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SnapshotBufferTest {
+
+    @Test
+    public void consumerSeesTheNewestPublishedBuffer() {
+        SnapshotBuffer<int[]> buffer = new SnapshotBuffer<>(new int[1], new int[1], new int[1]);
+        assertFalse(buffer.hasFresh());
+
+        buffer.getWriteBuffer()[0] = 1;
+        buffer.publish();
+        buffer.getWriteBuffer()[0] = 2;
+        buffer.publish();
+        assertTrue(buffer.hasFresh());
+
+        int[] acquired = buffer.acquire();
+        assertEquals(2, acquired[0]); // The first one was skipped
+        assertFalse(buffer.hasFresh());
+        assertSame(acquired, buffer.acquire());
+    }
+
+    @Test
+    public void producerNeverWritesTheHeldBuffer() {
+        SnapshotBuffer<int[]> buffer = new SnapshotBuffer<>(new int[1], new int[1], new int[1]);
+        buffer.publish();
+        int[] held = buffer.acquire();
+        for (int i = 0; i < 5; i++) {
+            assertNotSame(held, buffer.getWriteBuffer());
+            buffer.publish();
+        }
+    }
+
+    @Test
+    public void concurrentReadsSeeWholeSnapshotsInOrder() throws InterruptedException {
+        final int snapshots = 200_000;
+        SnapshotBuffer<int[]> buffer = new SnapshotBuffer<>(new int[64], new int[64], new int[64]);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread producer = new Thread(() -> {
+            for (int value = 1; value <= snapshots; value++) {
+                int[] snapshot = buffer.getWriteBuffer();
+                for (int i = 0; i < snapshot.length; i++) snapshot[i] = value;
+                buffer.publish();
+            }
+        });
+        producer.start();
+
+        int last = 0;
+        while (last < snapshots && failure.get() == null) {
+            int[] snapshot = buffer.acquire();
+            int value = snapshot[0];
+            for (int i = 1; i < snapshot.length; i++) {
+                if (snapshot[i] != value) failure.set("torn snapshot " + value + "/" + snapshot[i]);
+            }
+            if (value < last) failure.set("went back from " + last + " to " + value);
+            last = value;
+        }
+        producer.join();
+        assertNull(failure.get());
+    }
+}
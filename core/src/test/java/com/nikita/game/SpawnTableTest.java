@@ -0,0 +1,196 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SpawnTableTest {
+    private static final float EPSILON = 1e-6f;
+    private static final int TILE = 16;
+
+    @Test
+    public void entriesAreBucketedByChunk() {
+        SpawnTable table = SpawnTable.fromMap(campaignMap());
+        assertEquals(3, table.getChunksX());
+        assertEquals(2, table.getChunksY());
+        assertEquals(5, table.size());
+
+        // Bottom chunk row, left to right: the door, the altar, the enemy
+        assertEquals(0, table.rowStart(0, 0));
+        assertEquals(3, table.rowEnd(0, 2));
+        assertEquals(4, table.getId(0));
+        assertEquals(3, table.getId(1));
+        assertEquals(1, table.getId(2));
+        // One chunk of the row
+        assertEquals(1, table.rowStart(0, 1));
+        assertEquals(2, table.rowEnd(0, 1));
+        // Top chunk row: the seal, the note
+        assertEquals(3, table.rowStart(1, 0));
+        assertEquals(5, table.rowEnd(1, 2));
+        assertEquals(SpawnTable.SEAL, table.getType(3));
+        assertEquals(SpawnTable.NOTE, table.getType(4));
+    }
+
+    @Test
+    public void rowRangesAreClampedToTheMap() {
+        SpawnTable table = SpawnTable.fromMap(campaignMap());
+
+        assertEquals(0, table.rowStart(-3, -3));
+        assertEquals(table.size(), table.rowEnd(9, 9));
+        assertEquals(3, table.rowStart(1, -1));
+        assertEquals(3, table.rowEnd(0, 7));
+    }
+
+    @Test
+    public void objectsSpawnAtTheirCentreInTiles() {
+        SpawnTable table = SpawnTable.fromMap(campaignMap());
+
+        int door = 0;
+        assertEquals(5.5f, table.getX(door), EPSILON);
+        assertEquals(6f, table.getY(door), EPSILON);
+        int enemy = 2;
+        assertEquals(35f, table.getX(enemy), EPSILON);
+        assertEquals(33f, table.getPatrolMin(enemy), EPSILON); // Default range around the spawn
+        assertEquals(37f, table.getPatrolMax(enemy), EPSILON);
+        int note = 4;
+        assertArrayEquals(new String[]{"first", "second"}, table.getTextLines(note));
+        assertNull(table.getTextLines(enemy));
+    }
+
+    @Test
+    public void partZeroBelongsToEveryPart() {
+        SpawnTable table = SpawnTable.fromMap(campaignMap());
+        int seal = 3, note = 4;
+
+        assertTrue(table.isInPart(seal, 2));
+        assertFalse(table.isInPart(seal, 1));
+        assertTrue(table.isInPart(note, 1));
+        assertTrue(table.isInPart(note, 3));
+        assertEquals(0, table.getPart(note));
+    }
+
+    @Test
+    public void altarLinksToItsDoorAfterSorting() {
+        SpawnTable table = SpawnTable.fromMap(campaignMap());
+        int door = 0, altar = 1;
+
+        assertEquals(SpawnTable.ALTAR, table.getType(altar));
+        assertEquals(SpawnTable.SECRET_DOOR, table.getType(door));
+        assertEquals(door, table.getLink(altar));
+        assertEquals(-1, table.getLink(door));
+    }
+
+    @Test
+    public void doorCanBeReferencedByPlainId() {
+        TiledMap map = map(20, 10);
+        MapLayer layer = spawns(map);
+        layer.getObjects().add(object(7, "secret_door", 1, 1));
+        MapObject altar = object(8, "altar", 12, 1);
+        altar.getProperties().put("door", "7");
+        layer.getObjects().add(altar);
+
+        SpawnTable table = SpawnTable.fromMap(map);
+        assertEquals(0, table.getLink(1));
+    }
+
+    @Test
+    public void mapWithoutSpawnsLayerUsesTheLegacyEnemies() {
+        SpawnTable table = SpawnTable.fromMap(map(20, 15));
+
+        assertEquals(8, table.size());
+        for (int i = 0; i < table.size(); i++) {
+            assertEquals(SpawnTable.ENEMY, table.getType(i));
+            assertTrue(table.getPart(i) >= 1 && table.getPart(i) <= 3);
+        }
+    }
+
+    @Test
+    public void campaignMapsCarryTheLegacyEnemiesAndEveryObject() {
+        SpawnTable legacy = SpawnTable.legacy(20, 15);
+        for (String name : new String[]{"level_0", "level_2", "level_true_fixed"}) {
+            TiledMap map = new CollisionBaker.MapReader().read(new FileHandle("assets/maps/" + name + ".tmx"));
+            SpawnTable table = SpawnTable.fromMap(map);
+
+            int[] counts = new int[SpawnTable.HEALTH + 1];
+            int altar = -1;
+            for (int i = 0; i < table.size(); i++) {
+                counts[table.getType(i)]++;
+                if (table.getType(i) == SpawnTable.ALTAR) altar = i;
+            }
+            assertArrayEquals(name, new int[]{legacy.size(), 1, 1, 1, 1, 1, 1}, counts);
+            assertEquals(name, SpawnTable.SECRET_DOOR, table.getType(table.getLink(altar)));
+
+            for (int i = 0; i < legacy.size(); i++) {
+                assertTrue(name + " lacks legacy enemy " + i, hasEnemy(table, legacy, i));
+            }
+        }
+    }
+
+    private static boolean hasEnemy(SpawnTable table, SpawnTable legacy, int index) {
+        for (int i = 0; i < table.size(); i++) {
+            if (table.getType(i) == SpawnTable.ENEMY && table.getPart(i) == legacy.getPart(index)
+                && table.getX(i) == legacy.getX(index) && table.getY(i) == legacy.getY(index)
+                && table.getPatrolMin(i) == legacy.getPatrolMin(index) && table.getPatrolMax(i) == legacy.getPatrolMax(index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 40x20 tiles: 3x2 chunks
+    private static TiledMap campaignMap() {
+        TiledMap map = map(40, 20);
+        MapLayer layer = spawns(map);
+        layer.getObjects().add(object(1, "enemy", 35, 3));
+        MapObject seal = object(2, "seal", 2, 18);
+        seal.getProperties().put("part", 2);
+        layer.getObjects().add(seal);
+        MapObject door = object(4, "secret_door", 5, 5);
+        door.getProperties().put("width", 1f * TILE);
+        door.getProperties().put("height", 2f * TILE);
+        MapObject altar = object(3, "altar", 20, 2);
+        altar.getProperties().put("door", door); // Object properties are loaded as the object itself
+        altar.getProperties().put("part", "1");
+        layer.getObjects().add(altar);
+        layer.getObjects().add(door);
+        layer.getObjects().add(object(5, "crate", 1, 1)); // Unknown types are skipped
+        MapObject note = object(6, "Note", 18, 17);
+        note.getProperties().put("text", "first\nsecond");
+        layer.getObjects().add(note);
+        return map;
+    }
+
+    private static TiledMap map(int width, int height) {
+        TiledMap map = new TiledMap();
+        map.getProperties().put("width", width);
+        map.getProperties().put("height", height);
+        map.getProperties().put("tilewidth", TILE);
+        map.getProperties().put("tileheight", TILE);
+        return map;
+    }
+
+    private static MapLayer spawns(TiledMap map) {
+        MapLayer layer = new MapLayer();
+        layer.setName(SpawnTable.LAYER);
+        map.getLayers().add(layer);
+        return layer;
+    }
+
+    // A point object at the given tile
+    private static MapObject object(int id, String type, float tileX, float tileY) {
+        MapObject object = new MapObject();
+        object.getProperties().put("id", id);
+        object.getProperties().put("type", type);
+        object.getProperties().put("x", tileX * TILE);
+        object.getProperties().put("y", tileY * TILE);
+        return object;
+    }
+}
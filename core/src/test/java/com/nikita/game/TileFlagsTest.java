@@ -0,0 +1,104 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TileFlagsTest {
+
+    @Test
+    public void propertiesAcceptBooleansAndStrings() {
+        MapProperties properties = new MapProperties();
+        properties.put("collides", true);
+        properties.put("one_way", "TRUE");
+        properties.put("hazard", "false");
+        assertEquals(TileFlags.COLLIDES | TileFlags.ONE_WAY, TileFlags.fromProperties(properties));
+        assertEquals(0, TileFlags.fromProperties(new MapProperties()));
+    }
+
+    @Test
+    public void unknownIdsHaveNoFlags() {
+        TileFlags flags = TileFlags.legacy();
+        assertEquals(TileFlags.COLLIDES, flags.get(15));
+        assertEquals(0, flags.get(14));
+        assertEquals(0, flags.get(-1));
+        assertEquals(0, flags.get(10_000));
+    }
+
+    @Test
+    public void tilePropertiesClassifyEveryLayer() {
+        TiledMap map = map(3);
+        StaticTiledMapTile wall = tile(map, 1);
+        wall.getProperties().put("collides", true);
+        StaticTiledMapTile spikes = tile(map, 2);
+        spikes.getProperties().put("hazard", "true");
+        layer(map, "Ground", wall, null, null);
+        layer(map, "Decor", null, spikes, spikes);
+        layer(map, "Walls", null, null, wall);
+
+        TileFlags flags = TileFlags.fromMap(map);
+        assertFalse(flags.isLegacy());
+        assertArrayEquals(new byte[]{
+            TileFlags.COLLIDES, TileFlags.HAZARD, TileFlags.HAZARD | TileFlags.COLLIDES
+        }, flags.classify(map));
+    }
+
+    @Test
+    public void mapsWithoutPropertiesUseLegacyWallsLayer() {
+        TiledMap map = map(3);
+        StaticTiledMapTile wall = tile(map, TileFlags.LEGACY_WALL_IDS[0]);
+        layer(map, "Ground", wall, wall, null);
+        layer(map, "Walls", null, wall, wall);
+
+        TileFlags flags = TileFlags.fromMap(map);
+        assertTrue(flags.isLegacy());
+        // Only the Walls layer counts while it exists
+        assertArrayEquals(new byte[]{0, TileFlags.COLLIDES, TileFlags.COLLIDES}, flags.classify(map));
+    }
+
+    @Test
+    public void legacyFallsBackToGroundLayer() {
+        TiledMap map = map(2);
+        StaticTiledMapTile wall = tile(map, TileFlags.LEGACY_WALL_IDS[0]);
+        layer(map, "Ground", null, wall);
+
+        assertArrayEquals(new byte[]{0, TileFlags.COLLIDES}, TileFlags.fromMap(map).classify(map));
+    }
+
+    // A map one row high, with a single tileset
+    private static TiledMap map(int width) {
+        TiledMap map = new TiledMap();
+        map.getProperties().put("width", width);
+        map.getProperties().put("height", 1);
+        map.getTileSets().addTileSet(new TiledMapTileSet());
+        return map;
+    }
+
+    private static StaticTiledMapTile tile(TiledMap map, int id) {
+        StaticTiledMapTile tile = new StaticTiledMapTile(new TextureRegion());
+        tile.setId(id);
+        map.getTileSets().getTileSet(0).putTile(id, tile);
+        return tile;
+    }
+
+    private static void layer(TiledMap map, String name, StaticTiledMapTile... tiles) {
+        TiledMapTileLayer layer = new TiledMapTileLayer(tiles.length, 1, 16, 16);
+        layer.setName(name);
+        for (int x = 0; x < tiles.length; x++) {
+            if (tiles[x] == null) continue;
+            TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+            cell.setTile(tiles[x]);
+            layer.setCell(x, 0, cell);
+        }
+        map.getLayers().add(layer);
+    }
+}
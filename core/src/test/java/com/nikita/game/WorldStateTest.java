@@ -0,0 +1,70 @@
+package com.nikita.game;
+
+import com.badlogic.gdx.utils.Base64Coder;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WorldStateTest {
+
+    @Test
+    public void marksSurviveTheRoundTrip() {
+        WorldState state = new WorldState();
+        state.mark(0, WorldState.KILLED, 3);
+        state.mark(0, WorldState.KILLED, 700);
+        state.mark(2, WorldState.COLLECTED, 0);
+        state.mark(5, WorldState.TRIGGERED, 41);
+
+        WorldState restored = WorldState.fromBase64(state.toBase64());
+        assertTrue(restored.isSet(0, WorldState.KILLED, 3));
+        assertTrue(restored.isSet(0, WorldState.KILLED, 700));
+        assertTrue(restored.isSet(2, WorldState.COLLECTED, 0));
+        assertTrue(restored.isSet(5, WorldState.TRIGGERED, 41));
+        assertTrue(restored.isResolved(5, 41));
+
+        assertFalse(restored.isSet(0, WorldState.KILLED, 4));
+        assertFalse(restored.isSet(0, WorldState.COLLECTED, 3)); // Categories stay apart
+        assertFalse(restored.isSet(1, WorldState.KILLED, 3));    // So do parts
+        assertFalse(restored.isResolved(9, 0));
+        assertEquals(state.toBase64(), restored.toBase64());
+    }
+
+    @Test
+    public void emptyStateRoundTrips() {
+        WorldState restored = WorldState.fromBase64(new WorldState().toBase64());
+        assertFalse(restored.isResolved(0, 0));
+    }
+
+    @Test
+    public void missingOrUnreadableDataGivesAnEmptyState() {
+        assertFalse(WorldState.fromBase64(null).isResolved(0, 0));
+        assertFalse(WorldState.fromBase64("").isResolved(0, 0));
+        assertFalse(WorldState.fromBase64("not base64!").isResolved(0, 0));
+
+        WorldState state = new WorldState();
+        state.mark(0, WorldState.KILLED, 1);
+        String encoded = state.toBase64();
+        String truncated = new String(Base64Coder.encode(Arrays.copyOf(Base64Coder.decode(encoded), 4)));
+        assertFalse(WorldState.fromBase64(truncated).isResolved(0, 1));
+    }
+
+    @Test
+    public void otherVersionIsIgnored() {
+        WorldState state = new WorldState();
+        state.mark(0, WorldState.KILLED, 1);
+        byte[] bytes = Base64Coder.decode(state.toBase64());
+        bytes[0]++;
+        assertFalse(WorldState.fromBase64(new String(Base64Coder.encode(bytes))).isResolved(0, 1));
+    }
+
+    @Test
+    public void spawnTypesMapToCategories() {
+        assertEquals(WorldState.KILLED, WorldState.categoryOf(SpawnTable.ENEMY));
+        assertEquals(WorldState.COLLECTED, WorldState.categoryOf(SpawnTable.KEY));
+        assertEquals(WorldState.TRIGGERED, WorldState.categoryOf(SpawnTable.SECRET_DOOR));
+    }
+}
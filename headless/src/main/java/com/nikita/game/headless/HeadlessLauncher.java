@@ -0,0 +1,36 @@
+package com.nikita.game.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+/**
+ * Runs a level or the boss fight without a display, as fast as the machine allows or at a fixed
+ * tick rate, and reports what the simulation costs per tick.
+ * <p>
+ * Arguments: level path or {@code boss} (default {@value #DEFAULT_LEVEL}), ticks to run
+ * (default {@value #DEFAULT_TICKS}, 10 minutes of game time), ticks per second (default 0, unlimited).
+ */
+public class HeadlessLauncher {
+    private static final String DEFAULT_LEVEL = "maps/level_0.tmx";
+    private static final long DEFAULT_TICKS = 36_000;
+
+    public static void main(String[] args) {
+        String level = args.length > 0 ? args[0] : DEFAULT_LEVEL;
+        long ticks = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_TICKS;
+        int ticksPerSecond = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        createApplication(new SimulationSoak(level, ticks, ticksPerSecond));
+    }
+
+    private static HeadlessApplication createApplication(SimulationSoak soak) {
+        return new HeadlessApplication(soak, getDefaultConfiguration());
+    }
+
+    private static HeadlessApplicationConfiguration getDefaultConfiguration() {
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        // SimulationSoak paces itself; the backend only has to call render() back to back
+        configuration.updatesPerSecond = 0;
+        // Levels autosave; keep soak runs away from the player's own save
+        configuration.preferencesDirectory = ".prefs-headless/";
+        return configuration;
+    }
+}
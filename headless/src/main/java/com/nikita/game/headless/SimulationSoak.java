@@ -0,0 +1,125 @@
+package com.nikita.game.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.nikita.game.BossFightSimulation;
+import com.nikita.game.FixedStepper;
+import com.nikita.game.GameAssets;
+import com.nikita.game.InputActions;
+import com.nikita.game.InputLog;
+import com.nikita.game.LevelSimulation;
+import com.nikita.game.RenderSnapshot;
+import com.nikita.game.Simulation;
+import com.nikita.game.SimulationThread;
+import com.nikita.game.SnapshotBuffer;
+import com.nikita.game.SoundManager;
+
+/**
+ * Ticks a {@link LevelSimulation} or {@link BossFightSimulation} for a fixed number of steps and
+ * prints tick timings. Snapshots are written every tick exactly as the screens do, so their cost
+ * is included; they are just never drawn. No input reaches the simulation, so the player stands
+ * still, unless {@code -Dnikita.input.replay} feeds a recorded {@link InputLog}:
+ * the run then reproduces the recorded session tick for tick and stops where the recording ended,
+ * which makes timings of the same session comparable between builds.
+ */
+public class SimulationSoak extends ApplicationAdapter {
+    /** Name accepted instead of a level path to run the Soul Keeper fight. */
+    public static final String BOSS = BossFightSimulation.LOG_TARGET;
+
+    /** Ticks run per render() call when unpaced, so the backend still gets to run its runnables. */
+    private static final int TICKS_PER_CALL = 600;
+    private static final long REPORT_INTERVAL_TICKS = 60L * 60L; // Every minute of game time
+
+    private final String level;
+    private final long maxTicks;
+    private final int ticksPerSecond;
+    private final SnapshotBuffer<RenderSnapshot> snapshots =
+        new SnapshotBuffer<>(new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot());
+    private Simulation simulation;
+    private InputLog inputLog;
+    private long ticks;
+    private long startNanos;
+    private long tickNanos; // Total time spent in tick() and writeSnapshot()
+    private long slowestTickNanos;
+
+    public SimulationSoak(String level, long maxTicks, int ticksPerSecond) {
+        this.level = level;
+        this.maxTicks = maxTicks;
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    @Override
+    public void create() {
+        Gdx.gl = Gdx.gl20 = StubGL.create();
+        Box2D.init();
+
+        long loadStart = System.nanoTime();
+        inputLog = InputLog.fromSystemProperties(level);
+        if (BOSS.equals(level)) {
+            simulation = new BossFightSimulation(new SoundManager(), inputLog);
+        } else {
+            TiledMap map = GameAssets.acquire(level, TiledMap.class);
+            simulation = new LevelSimulation(level, map, false, inputLog);
+        }
+        System.out.println("Loaded " + level + " in " + (System.nanoTime() - loadStart) / 1_000_000 + " ms, running "
+            + maxTicks + " ticks at " + (ticksPerSecond > 0 ? ticksPerSecond + " ticks/s" : "full speed"));
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void render() {
+        int due = TICKS_PER_CALL;
+        if (ticksPerSecond > 0) {
+            long elapsed = System.nanoTime() - startNanos;
+            due = (int) Math.min(TICKS_PER_CALL, elapsed * ticksPerSecond / 1_000_000_000L - ticks);
+            if (due <= 0) {
+                Thread.yield();
+                return;
+            }
+        }
+
+        for (int i = 0; i < due; i++) {
+            long start = System.nanoTime();
+            simulation.tick(FixedStepper.STEP, InputActions.NONE);
+            ticks++;
+            SimulationThread.publish(simulation, snapshots, ticks);
+            long spent = System.nanoTime() - start;
+            tickNanos += spent;
+            slowestTickNanos = Math.max(slowestTickNanos, spent);
+
+            if (ticks % REPORT_INTERVAL_TICKS == 0) report("progress");
+            String stop = stopReason(snapshots.acquire());
+            if (stop != null) {
+                report(stop);
+                Gdx.app.exit();
+                return;
+            }
+        }
+    }
+
+    private String stopReason(RenderSnapshot snapshot) {
+        if (ticks >= maxTicks) return "done";
+        if (inputLog != null && inputLog.isFinished()) return "replay finished";
+        if (snapshot.exitTarget != null) return "level exits to " + snapshot.exitTarget;
+        if (snapshot.bossDefeated) return "boss defeated";
+        if (BOSS.equals(level) && snapshot.playerDead) return "player died";
+        return null;
+    }
+
+    private void report(String label) {
+        double wallSeconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%s: %d ticks (%.0f s game time) in %.2f s, %.0f ticks/s, %.1f us/tick avg, %.1f us max%n",
+            label, ticks, ticks * FixedStepper.STEP, wallSeconds, ticks / Math.max(wallSeconds, 1e-9),
+            tickNanos / 1000.0 / Math.max(ticks, 1), slowestTickNanos / 1000.0);
+    }
+
+    @Override
+    public void dispose() {
+        if (simulation != null) simulation.dispose();
+        if (inputLog != null) inputLog.close();
+        if (!BOSS.equals(level)) GameAssets.release(level);
+        GameAssets.dispose();
+    }
+}
@@ -0,0 +1,39 @@
+package com.nikita.game.headless;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * A {@link GL20} that accepts every call and does nothing. The headless backend has no GL context,
+ * but entities still create {@code Texture}s for their sprites; with this stub textures get the
+ * id 0 and nothing is uploaded, so the simulation runs unchanged without a display.
+ */
+final class StubGL {
+    private StubGL() {
+    }
+
+    static GL20 create() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class},
+            (proxy, method, args) -> {
+                if (method.getDeclaringClass() == Object.class) {
+                    // Identity semantics for equals/hashCode/toString
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        default: return "StubGL";
+                    }
+                }
+                Class<?> type = method.getReturnType();
+                if (type == boolean.class) return false;
+                if (type == int.class) return 0;
+                if (type == long.class) return 0L;
+                if (type == float.class) return 0f;
+                if (type == double.class) return 0d;
+                if (type == byte.class) return (byte) 0;
+                if (type == short.class) return (short) 0;
+                if (type == char.class) return (char) 0;
+                return null;
+            });
+    }
+}